@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Named combinations of a {@link Deflater} level and strategy, to trade compression time for archive size.
+ *
+ * @since 1.8
+ */
+public enum CompressionPreset {
+
+    /**
+     * The fastest compression, for snapshot and dry run builds.
+     */
+    FASTEST(Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY),
+
+    /**
+     * The default compression of {@link Deflater}.
+     */
+    BALANCED(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY),
+
+    /**
+     * The best compression, for the archives that are uploaded for a release candidate.
+     */
+    SMALLEST(Deflater.BEST_COMPRESSION, Deflater.DEFAULT_STRATEGY);
+
+    /** The {@link Deflater} level. */
+    private final int level;
+
+    /** The {@link Deflater} strategy. */
+    private final int strategy;
+
+    /**
+     * Creates a preset.
+     *
+     * @param level the {@link Deflater} level.
+     * @param strategy the {@link Deflater} strategy.
+     */
+    CompressionPreset(final int level, final int strategy) {
+        this.level = level;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Gets the {@link Deflater} level.
+     *
+     * @return the level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}, or
+     *         {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the {@link Deflater} strategy.
+     *
+     * @return the strategy.
+     */
+    public int getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Gets the {@link CompressionPreset} with the given name, ignoring case.
+     *
+     * @param name the name of the preset, for example <code>fastest</code>.
+     * @return the {@link CompressionPreset}.
+     * @throws IllegalArgumentException if there is no preset with that name.
+     */
+    public static CompressionPreset fromName(final String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the {@link Deflater} strategy with the given name, ignoring case.
+     *
+     * @param name <code>default</code>, <code>filtered</code> or <code>huffman</code>.
+     * @return the {@link Deflater} strategy.
+     * @throws IllegalArgumentException if there is no strategy with that name.
+     */
+    public static int getStrategy(final String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+        case "default":
+            return Deflater.DEFAULT_STRATEGY;
+        case "filtered":
+            return Deflater.FILTERED;
+        case "huffman":
+            return Deflater.HUFFMAN_ONLY;
+        default:
+            throw new IllegalArgumentException("Unknown deflate strategy: " + name);
+        }
+    }
+}
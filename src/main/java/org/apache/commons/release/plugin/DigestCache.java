@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.collections4.properties.SortedProperties;
+
+/**
+ * An on-disk cache of file digests, so that re-running a build on unchanged artifacts does not have to
+ * hash them again. An entry is keyed by the canonical path of the file and the digest algorithm, and is
+ * only used if the size, the last modified time and the {@link BasicFileAttributes#fileKey()} of the file
+ * are still the same as when the digest was computed. Several builds can share the cache file, and the entries of
+ * files that were deleted are dropped whenever the cache is stored.
+ *
+ * <p>This class is safe for use by multiple threads.</p>
+ *
+ * @since 1.8
+ */
+public final class DigestCache {
+
+    /** The separator between the fields of a cache entry. */
+    private static final String SEPARATOR = " ";
+
+    /** The number of fields in a cache entry: the digest, and the attributes of the file it was computed for. */
+    private static final int ENTRY_FIELDS = 2;
+
+    /** The extension of the file that is locked while the cache file is stored. */
+    private static final String LOCK_FILE_EXTENSION = ".lock";
+
+    /** The lock that the threads of this JVM hold while they store a cache. */
+    private static final Object STORE_LOCK = new Object();
+
+    /** The file the cache is loaded from and stored to. */
+    private final File cacheFile;
+
+    /** The cache entries, from <code>canonicalPath#algorithm</code> to the entry fields. */
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+    /** The number of files for which all of the requested digests were found in the cache. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** The number of files for which at least one of the requested digests was not in the cache. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates an empty cache backed by the given file.
+     *
+     * @param cacheFile the {@link File} the cache is stored to.
+     */
+    private DigestCache(final File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Loads the cache from the given file. If the file does not exist yet, the cache starts out empty.
+     *
+     * @param cacheFile the {@link File} the cache is loaded from and stored to.
+     * @return the loaded {@link DigestCache}.
+     * @throws IOException if the file exists but cannot be read.
+     */
+    public static DigestCache load(final File cacheFile) throws IOException {
+        final DigestCache digestCache = new DigestCache(cacheFile);
+        if (cacheFile.isFile()) {
+            final SortedProperties properties = new SortedProperties();
+            try (InputStream inputStream = Files.newInputStream(cacheFile.toPath())) {
+                properties.load(inputStream);
+            }
+            for (final String key : properties.stringPropertyNames()) {
+                digestCache.entries.put(key, properties.getProperty(key));
+            }
+        }
+        return digestCache;
+    }
+
+    /**
+     * Gets the cached digests of the given file for each of the given algorithms.
+     *
+     * @param file the {@link File} to get the digests of.
+     * @param algorithms the digest algorithms.
+     * @return the hex encoded digests, in the order of <code>algorithms</code>, or <code>null</code> if the
+     *         digest for one of the algorithms is not in the cache or the file has changed since it was cached.
+     * @throws IOException if the attributes of the file cannot be read.
+     */
+    public String[] get(final File file, final List<String> algorithms) throws IOException {
+        final String canonicalPath = file.getCanonicalPath();
+        final String attributes = getAttributes(file.toPath());
+        final String[] digests = new String[algorithms.size()];
+        for (int i = 0; i < digests.length; i++) {
+            final String entry = entries.get(canonicalPath + "#" + algorithms.get(i));
+            final String[] fields = entry == null ? null : entry.split(SEPARATOR, ENTRY_FIELDS);
+            if (fields == null || fields.length != ENTRY_FIELDS || !attributes.equals(fields[1])) {
+                misses.incrementAndGet();
+                return null;
+            }
+            digests[i] = fields[0];
+        }
+        hits.incrementAndGet();
+        return digests;
+    }
+
+    /**
+     * Puts the digests of the given file in the cache.
+     *
+     * @param file the {@link File} the digests were computed for.
+     * @param algorithms the digest algorithms.
+     * @param digests the hex encoded digests, in the order of <code>algorithms</code>.
+     * @throws IOException if the attributes of the file cannot be read.
+     */
+    public void put(final File file, final List<String> algorithms, final String[] digests) throws IOException {
+        final String canonicalPath = file.getCanonicalPath();
+        final String attributes = getAttributes(file.toPath());
+        for (int i = 0; i < digests.length; i++) {
+            entries.put(canonicalPath + "#" + algorithms.get(i), digests[i] + SEPARATOR + attributes);
+        }
+    }
+
+    /**
+     * Stores the cache to its file. While holding a lock on a <code>.lock</code> file next to it, the cache is
+     * merged with the entries that other builds stored since it was loaded, the entries of files that no longer
+     * exist are dropped, and the result is written to a temporary file that is then moved in place, so that
+     * concurrent builds neither lose each other's entries nor see a partially written cache.
+     *
+     * @throws IOException if the cache cannot be written.
+     */
+    public void store() throws IOException {
+        final File parent = cacheFile.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            parent.mkdirs();
+        }
+        final Path lockFile = new File(parent, cacheFile.getName() + LOCK_FILE_EXTENSION).toPath();
+        // a file lock is held by the whole JVM, so the threads of a parallel build take turns first
+        synchronized (STORE_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                final SortedProperties properties = new SortedProperties();
+                if (cacheFile.isFile()) {
+                    try (InputStream inputStream = Files.newInputStream(cacheFile.toPath())) {
+                        properties.load(inputStream);
+                    }
+                }
+                properties.putAll(entries);
+                properties.keySet().removeIf(key -> !isCachedFilePresent((String) key));
+                write(properties, parent);
+            }
+        }
+    }
+
+    /**
+     * Writes the entries to a temporary file in the given directory, and moves it to the cache file.
+     *
+     * @param properties the entries to write.
+     * @param parent the directory of the cache file.
+     * @throws IOException if the cache cannot be written.
+     */
+    private void write(final SortedProperties properties, final File parent) throws IOException {
+        final Path temporaryFile = Files.createTempFile(parent.toPath(), cacheFile.getName(), ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                properties.store(outputStream, "Commons Release Plugin digest cache");
+            }
+            Files.move(temporaryFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Tells whether the file of a cache entry still exists.
+     *
+     * @param key the key of the entry, <code>canonicalPath#algorithm</code>.
+     * @return <code>true</code> if the file at the canonical path of the key exists.
+     */
+    private static boolean isCachedFilePresent(final String key) {
+        final int separator = key.lastIndexOf('#');
+        return separator > 0 && new File(key.substring(0, separator)).isFile();
+    }
+
+    /**
+     * Gets the number of files for which all of the requested digests were found in the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of files for which at least one of the requested digests was not found in the cache.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the attributes of the file that have to match for a cache entry to be used, in the format they
+     * are stored in.
+     *
+     * @param path the {@link Path} of the file.
+     * @return the size, last modified time and file key of the file.
+     * @throws IOException if the attributes cannot be read.
+     */
+    private static String getAttributes(final Path path) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.size() + SEPARATOR + attributes.lastModifiedTime().toMillis() + SEPARATOR
+                + attributes.fileKey();
+    }
+}
@@ -0,0 +1,771 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Validates the artifacts of a release candidate in a Nexus staging repository against their checksums and
+ * against the distributions staged in the <code>source</code> and <code>binaries</code> directories of the dist
+ * checkout. This does in Java what the <code>signature-validator.sh</code> script does with <code>curl</code> and
+ * <code>openssl</code>, but downloads and hashes the artifacts in parallel, and hashes them while they are
+ * downloaded so that nothing is written to disk.
+ *
+ * <p>Every artifact listed in the repository directory is downloaded once, and its SHA-512, SHA-1 and MD5 digests
+ * are compared with the <code>.sha512</code>, <code>.sha1</code> and <code>.md5</code> files next to it, and, if a
+ * file of the same name is staged, with the SHA-512 digest of that file. Each artifact must have at least one of
+ * these checksums and an <code>.asc</code> signature. The signatures themselves are not verified, that is left to
+ * <code>gpg</code>.</p>
+ *
+ * <p>With {@link #validateChecksums(String, File)}, the artifacts are instead validated against the digests that
+ * were computed when they were built, by fetching only their remote checksums, so that validating a release
+ * candidate transfers kilobytes rather than the whole distribution.</p>
+ *
+ * <p>The validator can also be run on its own, with the url of the repository directory and the dist directory of
+ * the release candidate as arguments, see {@link #main(String[])}.</p>
+ *
+ * @since 1.8
+ */
+public final class DistributionValidator implements AutoCloseable {
+
+    /** The algorithms of the checksum files that are published next to the artifacts, strongest first. */
+    private static final List<String> CHECKSUM_ALGORITHMS = Collections.unmodifiableList(
+            Arrays.asList(SiteArchiveFormat.DIGEST_ALGORITHM, "SHA-1", "MD5"));
+
+    /** The extension of the detached signatures of the artifacts. */
+    private static final String SIGNATURE_EXTENSION = "asc";
+
+    /** The directories of the dist checkout of a release candidate whose files are compared with the artifacts. */
+    private static final List<String> STAGED_DIRECTORIES = Collections.unmodifiableList(
+            Arrays.asList("source", "binaries"));
+
+    /** Matches the links of a repository directory listing. */
+    private static final Pattern HREF = Pattern.compile("href\\s*=\\s*[\"']([^\"'#?]+)[\"']",
+            Pattern.CASE_INSENSITIVE);
+
+    /** The prefix of the http headers in which repositories send the checksums of an artifact. */
+    private static final String CHECKSUM_HEADER_PREFIX = "X-Checksum-";
+
+    /** How long to wait for a connection to the repository, in milliseconds. */
+    private static final int CONNECT_TIMEOUT_MILLIS = 30 * 1000;
+
+    /** How long to wait for data from the repository, in milliseconds. */
+    private static final int READ_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /** The number of arguments of {@link #main(String[])} without the optional number of threads. */
+    private static final int MAIN_ARGUMENTS = 2;
+
+    /** The exit status of {@link #main(String[])} when the artifacts are invalid or cannot be validated. */
+    private static final int EXIT_INVALID = 1;
+
+    /** The exit status of {@link #main(String[])} when it is called with the wrong arguments. */
+    private static final int EXIT_USAGE = 2;
+
+    /** The Maven {@link Log} to report progress and problems to. */
+    private final Log log;
+
+    /** The thread pool that downloads and hashes the files, which bounds the number of concurrent connections. */
+    private final ExecutorService executorService;
+
+    /**
+     * Creates a validator.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param threads the number of files that are downloaded or hashed at once. A <code>null</code> or a value less
+     *                than one means the number of processors available to the JVM.
+     */
+    public DistributionValidator(final Log log, final Integer threads) {
+        this.log = log;
+        this.executorService = SharedFunctions.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Validates the artifacts in a repository directory.
+     *
+     * @param repositoryUrl the url of the directory of the release candidate in the staging repository, for example
+     *     <code>https://repository.apache.org/content/repositories/orgapachecommons-1/commons-io/commons-io/2.8</code>.
+     * @param distDirectory the directory of the release candidate in the dist checkout, which contains the
+     *                      <code>source</code> and <code>binaries</code> directories, or <code>null</code> to only
+     *                      validate the artifacts against their checksum files.
+     * @return the problems that were found, which are empty if all of the artifacts are valid.
+     * @throws MojoExecutionException if the repository or the staged files cannot be read.
+     */
+    public List<String> validate(final String repositoryUrl, final File distDirectory)
+            throws MojoExecutionException {
+        final String baseUrl = repositoryUrl.endsWith("/") ? repositoryUrl : repositoryUrl + "/";
+        final Set<String> names = new TreeSet<>(parseIndex(readString(baseUrl), baseUrl));
+        final Map<String, File> stagedFiles = listStagedFiles(distDirectory);
+        final ConcurrentMap<String, Map<String, String>> remoteDigests = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, String> checksums = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, String> stagedDigests = new ConcurrentHashMap<>();
+        final List<String> artifacts = new ArrayList<>();
+        for (final String name : names) {
+            if (!isChecksum(name) && !isSignature(name)) {
+                artifacts.add(name);
+            }
+        }
+        final List<Future<Void>> futures = new ArrayList<>();
+        // only the checksum files of the artifacts are read, not those of the signatures
+        submitDownloads(baseUrl, names, artifacts, remoteDigests, checksums, futures);
+        for (final Map.Entry<String, File> stagedFile : stagedFiles.entrySet()) {
+            final String name = stagedFile.getKey();
+            final File file = stagedFile.getValue();
+            futures.add(executorService.submit(() -> {
+                stagedDigests.put(name, isChecksum(name) ? parseChecksum(readString(file)) : hash(file));
+                return null;
+            }));
+        }
+        try {
+            SharedFunctions.awaitAll(futures);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        final List<String> problems = new ArrayList<>();
+        for (final String name : new TreeSet<>(remoteDigests.keySet())) {
+            checkArtifact(name, names, remoteDigests.get(name), checksums, stagedDigests, problems);
+        }
+        for (final String name : new TreeSet<>(stagedFiles.keySet())) {
+            if (!isChecksum(name) && !isSignature(name)) {
+                checkStagedFile(name, stagedDigests, remoteDigests.containsKey(name), problems);
+            }
+        }
+        for (final String problem : problems) {
+            log.error(problem);
+        }
+        log.info(String.format("Validated %d artifacts of %s against %d staged files: %d problems",
+                remoteDigests.size(), baseUrl, stagedFiles.size(), problems.size()));
+        return problems;
+    }
+
+    /**
+     * Validates the artifacts in a repository directory against the digests that were computed when they were
+     * built, without downloading them. For each artifact, the strongest remote checksum file for which there is a
+     * local digest is fetched, or, if there is none, the <code>X-Checksum-*</code> headers of a <code>HEAD</code>
+     * request are used. The artifact is only downloaded in full if its remote checksum is missing or does not
+     * match, to tell a corrupt artifact from a wrong checksum file. As in {@link #validate(String, File)}, each
+     * artifact must have an <code>.asc</code> signature in the repository directory, and the artifacts that have no
+     * local digest, like the pom, are downloaded and validated against their checksum files.
+     *
+     * @param repositoryUrl the url of the directory of the release candidate in the staging repository.
+     * @param digestDirectory the directory with the <code>&lt;algorithm&gt;.properties</code> files written by the
+     *                        <code>detach-distributions</code> goal, which map the names of the artifacts to their
+     *                        digests.
+     * @return the problems that were found, which are empty if all of the artifacts are valid.
+     * @throws MojoExecutionException if there are no digests, or the repository cannot be read.
+     */
+    public List<String> validateChecksums(final String repositoryUrl, final File digestDirectory)
+            throws MojoExecutionException {
+        final String baseUrl = repositoryUrl.endsWith("/") ? repositoryUrl : repositoryUrl + "/";
+        final Map<String, Map<String, String>> localDigests = readDigestProperties(digestDirectory);
+        if (localDigests.isEmpty()) {
+            throw new MojoExecutionException("There are no digests in " + digestDirectory
+                    + ", run the detach-distributions goal first");
+        }
+        final Set<String> names = new TreeSet<>(parseIndex(readString(baseUrl), baseUrl));
+        final List<String> unknownArtifacts = new ArrayList<>();
+        for (final String name : names) {
+            if (!isChecksum(name) && !isSignature(name) && !localDigests.containsKey(name)) {
+                unknownArtifacts.add(name);
+            }
+        }
+        final List<String> problems = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger downloads = new AtomicInteger(unknownArtifacts.size());
+        final ConcurrentMap<String, Map<String, String>> remoteDigests = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, String> checksums = new ConcurrentHashMap<>();
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (final Map.Entry<String, Map<String, String>> entry : localDigests.entrySet()) {
+            futures.add(executorService.submit(() -> {
+                compareChecksum(baseUrl, entry.getKey(), entry.getValue(), problems, downloads);
+                return null;
+            }));
+        }
+        submitDownloads(baseUrl, names, unknownArtifacts, remoteDigests, checksums, futures);
+        try {
+            SharedFunctions.awaitAll(futures);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        for (final String name : localDigests.keySet()) {
+            if (names.contains(name) && !names.contains(name + "." + SIGNATURE_EXTENSION)) {
+                problems.add(name + " has no " + SIGNATURE_EXTENSION + " signature");
+            }
+        }
+        // the artifacts that were not built by this build, like the pom, are validated as in download mode
+        for (final String name : unknownArtifacts) {
+            checkArtifact(name, names, remoteDigests.get(name), checksums, Collections.emptyMap(), problems);
+        }
+        final List<String> sortedProblems = new ArrayList<>(problems);
+        Collections.sort(sortedProblems);
+        for (final String problem : sortedProblems) {
+            log.error(problem);
+        }
+        log.info(String.format("Compared the checksums of %d artifacts of %s, downloaded %d in full: %d problems",
+                localDigests.size() + unknownArtifacts.size(), baseUrl, downloads.get(), sortedProblems.size()));
+        return sortedProblems;
+    }
+
+    /**
+     * Stops the threads of this validator.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Validates the artifacts of a release candidate from the command line, and exits with a non zero status if
+     * they are invalid. The arguments are the url of the directory of the release candidate in the staging
+     * repository, the directory of the release candidate in the dist checkout, and optionally the number of files
+     * that are downloaded or hashed at once.
+     *
+     * @param args the command line arguments.
+     */
+    public static void main(final String[] args) {
+        if (args.length != MAIN_ARGUMENTS && args.length != MAIN_ARGUMENTS + 1) {
+            System.err.println("Usage: " + DistributionValidator.class.getName()
+                    + " <repository url> <dist directory> [threads]");
+            System.exit(EXIT_USAGE);
+        }
+        final Log log = new SystemStreamLog();
+        final Integer threads = args.length > MAIN_ARGUMENTS ? Integer.valueOf(args[MAIN_ARGUMENTS]) : null;
+        try (DistributionValidator validator = new DistributionValidator(log, threads)) {
+            if (!validator.validate(args[0], new File(args[1])).isEmpty()) {
+                System.exit(EXIT_INVALID);
+            }
+        } catch (final MojoExecutionException e) {
+            log.error(e.getMessage(), e);
+            System.exit(EXIT_INVALID);
+        }
+        log.info("SUCCESSFUL VALIDATION");
+    }
+
+    /**
+     * Gets the names of the files that a repository directory listing links to. Links to parent directories, sub
+     * directories, and other sites are ignored.
+     *
+     * @param html the html of the directory listing.
+     * @param baseUrl the url of the directory, ending with a <code>/</code>.
+     * @return the names of the files, in the order of the listing.
+     * @throws MojoExecutionException if the <code>baseUrl</code> is not a url.
+     */
+    static List<String> parseIndex(final String html, final String baseUrl) throws MojoExecutionException {
+        final URL base = toUrl(baseUrl);
+        final List<String> names = new ArrayList<>();
+        final Matcher matcher = HREF.matcher(html);
+        while (matcher.find()) {
+            final String url;
+            try {
+                url = new URL(base, matcher.group(1)).toExternalForm();
+            } catch (final MalformedURLException e) {
+                continue;
+            }
+            if (url.startsWith(base.toExternalForm())) {
+                final String name = url.substring(base.toExternalForm().length());
+                if (!name.isEmpty() && name.indexOf('/') < 0 && !names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Gets the digest from the content of a checksum file, which is either just the hex encoded digest, or the
+     * digest followed by the name of the file, as written by <code>sha512sum</code>.
+     *
+     * @param content the content of the checksum file.
+     * @return the lower case hex encoded digest, or an empty string if the file is empty.
+     */
+    static String parseChecksum(final String content) {
+        final String trimmed = content.trim();
+        return trimmed.isEmpty() ? trimmed : trimmed.split("\\s+", 2)[0].toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks an artifact of the repository against its checksum files, and against the staged file of the same
+     * name.
+     *
+     * @param name the name of the artifact.
+     * @param names the names of all of the files in the repository directory.
+     * @param digests the digests of the artifact, by algorithm.
+     * @param checksums the contents of the checksum files of the repository, by name.
+     * @param stagedDigests the digests of the staged files, by name.
+     * @param problems the {@link List} to add the problems to.
+     */
+    private static void checkArtifact(final String name, final Set<String> names, final Map<String, String> digests,
+            final Map<String, String> checksums, final Map<String, String> stagedDigests,
+            final List<String> problems) {
+        boolean checked = false;
+        for (final String algorithm : CHECKSUM_ALGORITHMS) {
+            final String checksum = checksums.get(name + "." + SharedFunctions.getDigestFileExtension(algorithm));
+            if (checksum != null) {
+                checked = true;
+                if (!checksum.equals(digests.get(algorithm))) {
+                    problems.add(String.format("%s failed %s check: expected %s but was %s", name, algorithm,
+                            checksum, digests.get(algorithm)));
+                }
+            }
+        }
+        final String stagedDigest = stagedDigests.get(name);
+        if (stagedDigest != null) {
+            checked = true;
+            if (!stagedDigest.equals(digests.get(SiteArchiveFormat.DIGEST_ALGORITHM))) {
+                problems.add(String.format("%s differs from the staged file: %s digest %s but staged %s", name,
+                        SiteArchiveFormat.DIGEST_ALGORITHM, digests.get(SiteArchiveFormat.DIGEST_ALGORITHM),
+                        stagedDigest));
+            }
+        }
+        if (!checked) {
+            problems.add(name + " has no checksum to validate it against");
+        }
+        if (!names.contains(name + "." + SIGNATURE_EXTENSION)) {
+            problems.add(name + " has no " + SIGNATURE_EXTENSION + " signature");
+        }
+    }
+
+    /**
+     * Submits the downloads of the given artifacts, and the reads of their checksum files in the repository
+     * directory.
+     *
+     * @param baseUrl the url of the repository directory, ending with a <code>/</code>.
+     * @param names the names of all of the files in the repository directory.
+     * @param artifacts the names of the artifacts to download.
+     * @param remoteDigests the digests of the downloaded artifacts, by algorithm, by name, to fill.
+     * @param checksums the contents of the checksum files of the artifacts, by name, to fill.
+     * @param futures the {@link List} to add the {@link Future}'s of the submitted tasks to.
+     */
+    private void submitDownloads(final String baseUrl, final Set<String> names, final Collection<String> artifacts,
+            final ConcurrentMap<String, Map<String, String>> remoteDigests,
+            final ConcurrentMap<String, String> checksums, final List<Future<Void>> futures) {
+        for (final String name : artifacts) {
+            futures.add(executorService.submit(() -> {
+                remoteDigests.put(name, download(baseUrl + name));
+                return null;
+            }));
+            for (final String algorithm : CHECKSUM_ALGORITHMS) {
+                final String checksumName = name + "." + SharedFunctions.getDigestFileExtension(algorithm);
+                if (names.contains(checksumName)) {
+                    futures.add(executorService.submit(() -> {
+                        checksums.put(checksumName, parseChecksum(readString(baseUrl + checksumName)));
+                        return null;
+                    }));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the remote checksum of an artifact with its local digests, and downloads the artifact if the
+     * remote checksum is missing or does not match.
+     *
+     * @param baseUrl the url of the repository directory, ending with a <code>/</code>.
+     * @param name the name of the artifact.
+     * @param localDigests the local digests of the artifact, by algorithm.
+     * @param problems the {@link List} to add the problems to, which must be synchronized.
+     * @param downloads the number of artifacts downloaded in full, to increment.
+     * @throws MojoExecutionException if the repository cannot be read.
+     */
+    private static void compareChecksum(final String baseUrl, final String name,
+            final Map<String, String> localDigests, final List<String> problems, final AtomicInteger downloads)
+            throws MojoExecutionException {
+        final String url = baseUrl + name;
+        for (final String algorithm : CHECKSUM_ALGORITHMS) {
+            if (localDigests.containsKey(algorithm)) {
+                final String extension = SharedFunctions.getDigestFileExtension(algorithm);
+                final String checksum = readChecksum(url + "." + extension);
+                if (checksum != null) {
+                    if (!checksum.equals(localDigests.get(algorithm))) {
+                        downloads.incrementAndGet();
+                        compareDownload(url, name, localDigests, "." + extension + " file", problems);
+                    }
+                    return;
+                }
+            }
+        }
+        final Map<String, String> headers = readChecksumHeaders(url);
+        if (headers == null) {
+            problems.add(name + " is not in the repository");
+            return;
+        }
+        for (final String algorithm : CHECKSUM_ALGORITHMS) {
+            if (localDigests.containsKey(algorithm) && headers.containsKey(algorithm)) {
+                if (!headers.get(algorithm).equals(localDigests.get(algorithm))) {
+                    downloads.incrementAndGet();
+                    compareDownload(url, name, localDigests, algorithm + " header", problems);
+                }
+                return;
+            }
+        }
+        downloads.incrementAndGet();
+        compareDownload(url, name, localDigests, null, problems);
+    }
+
+    /**
+     * Downloads an artifact and compares its digests with the local ones.
+     *
+     * @param url the url of the artifact.
+     * @param name the name of the artifact.
+     * @param localDigests the local digests of the artifact, by algorithm.
+     * @param remoteChecksum the remote checksum that did not match, or <code>null</code> if there was none.
+     * @param problems the {@link List} to add the problems to, which must be synchronized.
+     * @throws MojoExecutionException if the artifact cannot be downloaded.
+     */
+    private static void compareDownload(final String url, final String name, final Map<String, String> localDigests,
+            final String remoteChecksum, final List<String> problems) throws MojoExecutionException {
+        final Map<String, String> digests = download(url);
+        for (final String algorithm : CHECKSUM_ALGORITHMS) {
+            final String localDigest = localDigests.get(algorithm);
+            if (localDigest != null && !localDigest.equals(digests.get(algorithm))) {
+                problems.add(String.format("%s differs from the local artifact: %s digest %s but local %s", name,
+                        algorithm, digests.get(algorithm), localDigest));
+                return;
+            }
+        }
+        if (remoteChecksum != null) {
+            problems.add(name + " matches the local artifact, but its " + remoteChecksum + " does not");
+        }
+    }
+
+    /**
+     * Reads the digests of the artifacts from the <code>&lt;algorithm&gt;.properties</code> files of the
+     * {@link #CHECKSUM_ALGORITHMS}.
+     *
+     * @param digestDirectory the directory of the properties files.
+     * @return the digests by algorithm, by name of the artifact, which are empty if there are no properties files.
+     * @throws MojoExecutionException if a properties file cannot be read.
+     */
+    private static Map<String, Map<String, String>> readDigestProperties(final File digestDirectory)
+            throws MojoExecutionException {
+        final Map<String, Map<String, String>> digests = new TreeMap<>();
+        for (final String algorithm : CHECKSUM_ALGORITHMS) {
+            final File propertiesFile = new File(digestDirectory,
+                    SharedFunctions.getDigestFileExtension(algorithm) + ".properties");
+            if (!propertiesFile.isFile()) {
+                continue;
+            }
+            final Properties properties = new Properties();
+            try (InputStream inputStream = Files.newInputStream(propertiesFile.toPath())) {
+                properties.load(inputStream);
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Failed to read " + propertiesFile + ": " + e.getMessage(), e);
+            }
+            for (final String name : properties.stringPropertyNames()) {
+                digests.computeIfAbsent(name, key -> new HashMap<>())
+                        .put(algorithm, parseChecksum(properties.getProperty(name)));
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Checks a staged file against its staged SHA-512 checksum file, if there is one.
+     *
+     * @param name the name of the staged file.
+     * @param stagedDigests the digests of the staged files, and the contents of the staged checksum files, by name.
+     * @param inRepository whether the repository has an artifact of the same name.
+     * @param problems the {@link List} to add the problems to.
+     */
+    private void checkStagedFile(final String name, final Map<String, String> stagedDigests,
+            final boolean inRepository, final List<String> problems) {
+        final String checksum = stagedDigests.get(name + "."
+                + SharedFunctions.getDigestFileExtension(SiteArchiveFormat.DIGEST_ALGORITHM));
+        if (checksum != null && !checksum.equals(stagedDigests.get(name))) {
+            problems.add(String.format("Staged %s failed %s check: expected %s but was %s", name,
+                    SiteArchiveFormat.DIGEST_ALGORITHM, checksum, stagedDigests.get(name)));
+        }
+        if (!inRepository) {
+            log.warn("Staged " + name + " is not in the repository");
+        }
+    }
+
+    /**
+     * Lists the files in the <code>source</code> and <code>binaries</code> directories of a release candidate.
+     *
+     * @param distDirectory the directory of the release candidate, or <code>null</code>.
+     * @return the files by name.
+     * @throws MojoExecutionException if the <code>distDirectory</code> is not a directory.
+     */
+    private static Map<String, File> listStagedFiles(final File distDirectory) throws MojoExecutionException {
+        final Map<String, File> stagedFiles = new HashMap<>();
+        if (distDirectory == null) {
+            return stagedFiles;
+        }
+        if (!distDirectory.isDirectory()) {
+            throw new MojoExecutionException("The dist directory " + distDirectory + " does not exist");
+        }
+        for (final String directoryName : STAGED_DIRECTORIES) {
+            final File[] files = new File(distDirectory, directoryName).listFiles(File::isFile);
+            if (files != null) {
+                for (final File file : files) {
+                    stagedFiles.put(file.getName(), file);
+                }
+            }
+        }
+        return stagedFiles;
+    }
+
+    /**
+     * Tells whether a file is a checksum file of one of the {@link #CHECKSUM_ALGORITHMS}.
+     *
+     * @param name the name of the file.
+     * @return <code>true</code> if the file is a checksum file.
+     */
+    private static boolean isChecksum(final String name) {
+        for (final String algorithm : CHECKSUM_ALGORITHMS) {
+            if (name.endsWith("." + SharedFunctions.getDigestFileExtension(algorithm))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether a file is a detached signature.
+     *
+     * @param name the name of the file.
+     * @return <code>true</code> if the file is a signature.
+     */
+    private static boolean isSignature(final String name) {
+        return name.endsWith("." + SIGNATURE_EXTENSION);
+    }
+
+    /**
+     * Downloads an artifact and computes its digests as it is read.
+     *
+     * @param url the url of the artifact.
+     * @return the lower case hex encoded digests of the artifact, by algorithm.
+     * @throws MojoExecutionException if the artifact cannot be downloaded.
+     */
+    private static Map<String, String> download(final String url) throws MojoExecutionException {
+        final MessageDigest[] messageDigests = new MessageDigest[CHECKSUM_ALGORITHMS.size()];
+        for (int i = 0; i < messageDigests.length; i++) {
+            messageDigests[i] = DigestUtils.getDigest(CHECKSUM_ALGORITHMS.get(i));
+        }
+        final HttpURLConnection connection = open(url);
+        try (InputStream inputStream = connection.getInputStream()) {
+            SharedFunctions.updateDigests(inputStream, null, messageDigests);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Failed to download " + url + ": " + e.getMessage(), e);
+        } finally {
+            connection.disconnect();
+        }
+        final Map<String, String> digests = new HashMap<>();
+        for (int i = 0; i < messageDigests.length; i++) {
+            digests.put(CHECKSUM_ALGORITHMS.get(i), Hex.encodeHexString(messageDigests[i].digest()));
+        }
+        return digests;
+    }
+
+    /**
+     * Downloads a small text file, like a directory listing or a checksum file.
+     *
+     * @param url the url of the file.
+     * @return the content of the file.
+     * @throws MojoExecutionException if the file cannot be downloaded.
+     */
+    private static String readString(final String url) throws MojoExecutionException {
+        final HttpURLConnection connection = open(url);
+        try (InputStream inputStream = connection.getInputStream()) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Failed to download " + url + ": " + e.getMessage(), e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Downloads a checksum file, if it exists.
+     *
+     * @param url the url of the checksum file.
+     * @return the digest in the checksum file, or <code>null</code> if there is no such file.
+     * @throws MojoExecutionException if the file cannot be downloaded.
+     */
+    private static String readChecksum(final String url) throws MojoExecutionException {
+        final HttpURLConnection connection = connect(url, "GET");
+        if (connection == null) {
+            return null;
+        }
+        try (InputStream inputStream = connection.getInputStream()) {
+            return parseChecksum(IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Failed to download " + url + ": " + e.getMessage(), e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Gets the digests that the repository sends in the <code>X-Checksum-*</code> headers of an artifact, like
+     * Nexus 3 and Maven Central do, without downloading the artifact.
+     *
+     * @param url the url of the artifact.
+     * @return the lower case hex encoded digests of the artifact, by algorithm, which may be empty, or
+     *         <code>null</code> if there is no such artifact.
+     * @throws MojoExecutionException if the request fails.
+     */
+    private static Map<String, String> readChecksumHeaders(final String url) throws MojoExecutionException {
+        final HttpURLConnection connection = connect(url, "HEAD");
+        if (connection == null) {
+            return null;
+        }
+        try {
+            final Map<String, String> digests = new HashMap<>();
+            for (final String algorithm : CHECKSUM_ALGORITHMS) {
+                final String header = connection.getHeaderField(CHECKSUM_HEADER_PREFIX
+                        + SharedFunctions.getDigestFileExtension(algorithm));
+                if (header != null && !parseChecksum(header).isEmpty()) {
+                    digests.put(algorithm, parseChecksum(header));
+                }
+            }
+            return digests;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Reads a small staged text file, like a checksum file.
+     *
+     * @param file the file.
+     * @return the content of the file.
+     * @throws MojoExecutionException if the file cannot be read.
+     */
+    private static String readString(final File file) throws MojoExecutionException {
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Failed to read " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes the {@link SiteArchiveFormat#DIGEST_ALGORITHM} digest of a staged file.
+     *
+     * @param file the file.
+     * @return the lower case hex encoded digest.
+     * @throws MojoExecutionException if the file cannot be read.
+     */
+    private static String hash(final File file) throws MojoExecutionException {
+        final MessageDigest messageDigest = DigestUtils.getDigest(SiteArchiveFormat.DIGEST_ALGORITHM);
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            SharedFunctions.updateDigests(inputStream, null, messageDigest);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Failed to read " + file + ": " + e.getMessage(), e);
+        }
+        return Hex.encodeHexString(messageDigest.digest());
+    }
+
+    /**
+     * Opens a connection to a url of the repository, and checks that the file is there.
+     *
+     * @param url the url.
+     * @return the connection, which has been connected.
+     * @throws MojoExecutionException if the connection fails or the server does not answer with the file.
+     */
+    private static HttpURLConnection open(final String url) throws MojoExecutionException {
+        final HttpURLConnection connection = connect(url, "GET");
+        if (connection == null) {
+            throw new MojoExecutionException("Failed to download " + url + ": HTTP "
+                    + HttpURLConnection.HTTP_NOT_FOUND);
+        }
+        return connection;
+    }
+
+    /**
+     * Sends a request to a url of the repository.
+     *
+     * @param url the url.
+     * @param method the http method, <code>GET</code> or <code>HEAD</code>.
+     * @return the connection, which has been connected, or <code>null</code> if there is no such file.
+     * @throws MojoExecutionException if the connection fails or the server answers with an error.
+     */
+    private static HttpURLConnection connect(final String url, final String method) throws MojoExecutionException {
+        try {
+            final URLConnection urlConnection = toUrl(url).openConnection();
+            if (!(urlConnection instanceof HttpURLConnection)) {
+                throw new MojoExecutionException("Not an http url: " + url);
+            }
+            final HttpURLConnection connection = (HttpURLConnection) urlConnection;
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            final int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                connection.disconnect();
+                return null;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                connection.disconnect();
+                throw new MojoExecutionException("Failed to download " + url + ": HTTP " + responseCode);
+            }
+            return connection;
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Failed to download " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses a url.
+     *
+     * @param url the url.
+     * @return the {@link URL}.
+     * @throws MojoExecutionException if the url is malformed.
+     */
+    private static URL toUrl(final String url) throws MojoExecutionException {
+        try {
+            return new URL(url);
+        } catch (final MalformedURLException e) {
+            throw new MojoExecutionException("Invalid url " + url, e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+
+/**
+ * An {@link OutputStream} that cuts what is written to it into fixed size blocks, compresses the blocks
+ * independently of each other on a thread pool, and writes the compressed blocks to the underlying stream in
+ * order. This works for the compression formats whose streams can be concatenated, like gzip members or xz
+ * streams, which standard decompressors read as if they were a single stream.
+ *
+ * <p>Only a couple of blocks per thread are held in memory at once: {@link #write(byte[], int, int)} blocks
+ * while too many blocks are in flight.</p>
+ *
+ * @since 1.8
+ */
+public final class ParallelBlockOutputStream extends OutputStream {
+
+    /**
+     * Compresses one block into a complete, standalone compressed stream.
+     */
+    public interface BlockEncoder {
+
+        /**
+         * Compresses a block.
+         *
+         * @param block the bytes of the block.
+         * @param out the {@link OutputStream} to write the compressed stream to.
+         * @throws IOException if the block cannot be compressed.
+         */
+        void encode(byte[] block, OutputStream out) throws IOException;
+    }
+
+    /** The number of blocks per thread that can be compressed, or waiting to be written, at once. */
+    private static final int PENDING_BLOCKS_PER_THREAD = 2;
+
+    /** The underlying stream. */
+    private final OutputStream out;
+
+    /** The size of the blocks. */
+    private final int blockSize;
+
+    /** The {@link BlockEncoder} that compresses the blocks. */
+    private final BlockEncoder encoder;
+
+    /** The thread pool that compresses the blocks. */
+    private final ExecutorService executorService;
+
+    /** The maximum number of {@link #pendingBlocks}. */
+    private final int maxPendingBlocks;
+
+    /** The blocks being compressed, or waiting to be written, in order. */
+    private final Queue<Future<UnsynchronizedByteArrayOutputStream>> pendingBlocks = new ArrayDeque<>();
+
+    /** The block being filled. */
+    private final byte[] block;
+
+    /** The number of bytes in the {@link #block}. */
+    private int blockLength;
+
+    /** Whether any block has been submitted yet. */
+    private boolean submitted;
+
+    /** Whether this stream has been closed. */
+    private boolean closed;
+
+    /**
+     * Creates the stream.
+     *
+     * @param out the underlying {@link OutputStream}, which is closed when this stream is closed.
+     * @param threads the number of threads that compress blocks. A <code>null</code> or a value less than one
+     *                means the number of processors available to the JVM.
+     * @param blockSize the size of the blocks.
+     * @param encoder the {@link BlockEncoder} that compresses the blocks.
+     */
+    public ParallelBlockOutputStream(final OutputStream out, final Integer threads, final int blockSize,
+                                     final BlockEncoder encoder) {
+        this.out = out;
+        this.blockSize = blockSize;
+        this.encoder = encoder;
+        this.block = new byte[blockSize];
+        this.maxPendingBlocks = SharedFunctions.getThreadCount(threads) * PENDING_BLOCKS_PER_THREAD;
+        this.executorService = SharedFunctions.newFixedThreadPool(threads);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (blockLength == blockSize) {
+            submitBlock();
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+            final int chunk = Math.min(length - written, blockSize - blockLength);
+            System.arraycopy(bytes, offset + written, block, blockLength, chunk);
+            blockLength += chunk;
+            written += chunk;
+        }
+    }
+
+    /**
+     * Compresses the last block, writes all of the blocks that are still in flight, and closes the underlying
+     * stream. At least one block is written, even if nothing was written to this stream, so that the result is a
+     * valid compressed stream.
+     *
+     * @throws IOException if a block cannot be compressed or written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (blockLength > 0 || !submitted) {
+                submitBlock();
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writeNext();
+            }
+        } finally {
+            executorService.shutdownNow();
+            out.close();
+        }
+    }
+
+    /**
+     * Submits the current block to be compressed, first writing the oldest compressed blocks if too many blocks
+     * are in flight.
+     *
+     * @throws IOException if an earlier block cannot be compressed or written.
+     */
+    private void submitBlock() throws IOException {
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeNext();
+        }
+        final byte[] bytes = Arrays.copyOf(block, blockLength);
+        pendingBlocks.add(executorService.submit(() -> {
+            final UnsynchronizedByteArrayOutputStream compressed = new UnsynchronizedByteArrayOutputStream();
+            encoder.encode(bytes, compressed);
+            return compressed;
+        }));
+        blockLength = 0;
+        submitted = true;
+    }
+
+    /**
+     * Waits for the oldest block in flight to be compressed, and writes it.
+     *
+     * @throws IOException if the block cannot be compressed or written, or the waiting thread is interrupted.
+     */
+    private void writeNext() throws IOException {
+        try {
+            pendingBlocks.remove().get().writeTo(out);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
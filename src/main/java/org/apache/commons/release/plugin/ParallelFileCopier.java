@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Copies, and writes, files on a bounded thread pool. Copying thousands of small files, like the javadoc of a site, is
+ * bound by the latency of the file system rather than by its throughput, so it speeds up well when several
+ * copies are in flight at once.
+ *
+ * <p>Copies are submitted with {@link #copyFile(File, File)}, {@link #copyDirectory(File, File)} and
+ * {@link #writeFile(byte[], File)}, and
+ * {@link #await()} waits for all of them and logs the aggregate throughput. The copier has to be closed to
+ * release its threads.</p>
+ *
+ * @since 1.8
+ */
+public final class ParallelFileCopier implements AutoCloseable {
+
+    /** The number of bytes in a megabyte, for reporting the throughput. */
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    /** The number of milliseconds in a second, for reporting the throughput. */
+    private static final double MILLIS_PER_SECOND = 1000;
+
+    /** The Maven {@link Log} to report failures and the throughput to. */
+    private final Log log;
+
+    /** The thread pool that runs the copies. */
+    private final ExecutorService executorService;
+
+    /** The copies that have been submitted since the last {@link #await()}. */
+    private final List<Future<Void>> futures = new ArrayList<>();
+
+    /** The number of files copied since the last {@link #await()}. */
+    private final AtomicLong copiedFiles = new AtomicLong();
+
+    /** The number of bytes copied since the last {@link #await()}. */
+    private final AtomicLong copiedBytes = new AtomicLong();
+
+    /** The time at which the first copy since the last {@link #await()} was submitted. */
+    private long startNanos;
+
+    /**
+     * Creates a copier.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param threads the number of threads that copy files. A <code>null</code> or a value less than one means
+     *                the number of processors available to the JVM.
+     */
+    public ParallelFileCopier(final Log log, final Integer threads) {
+        this.log = log;
+        this.executorService = SharedFunctions.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Submits the copy of a {@link File} from the <code>fromFile</code> to the <code>toFile</code>, replacing the
+     * <code>toFile</code> if it exists. The parent directories of the <code>toFile</code> are created as needed.
+     *
+     * @param fromFile the {@link File} from which to copy.
+     * @param toFile the {@link File} to which to copy into.
+     */
+    public void copyFile(final File fromFile, final File toFile) {
+        if (futures.isEmpty()) {
+            startNanos = System.nanoTime();
+        }
+        futures.add(executorService.submit(() -> {
+            copy(fromFile.toPath(), toFile.toPath());
+            return null;
+        }));
+    }
+
+    /**
+     * Submits the write of the given content to the <code>toFile</code>, replacing the <code>toFile</code> if it
+     * exists. The parent directories of the <code>toFile</code> are created as needed. The same content can be
+     * submitted for any number of files, which are written concurrently.
+     *
+     * @param content the bytes to write, which must not change until the write is complete.
+     * @param toFile the {@link File} to write to.
+     * @since 1.8
+     */
+    public void writeFile(final byte[] content, final File toFile) {
+        if (futures.isEmpty()) {
+            startNanos = System.nanoTime();
+        }
+        futures.add(executorService.submit(() -> {
+            write(content, toFile.toPath());
+            return null;
+        }));
+    }
+
+    /**
+     * Submits the copies of all of the files under the <code>fromDirectory</code> to the same relative paths
+     * under the <code>toDirectory</code>. The directory tree is walked on the calling thread, while the files are
+     * copied in the background.
+     *
+     * @param fromDirectory the directory from which to copy.
+     * @param toDirectory the directory to which to copy into.
+     * @return the {@link List} of the {@link File}'s that will be in the <code>toDirectory</code> once the copies
+     *         are complete, not including the directories.
+     * @throws MojoExecutionException if the <code>fromDirectory</code> cannot be walked.
+     */
+    public List<File> copyDirectory(final File fromDirectory, final File toDirectory)
+            throws MojoExecutionException {
+        final Path fromRoot = fromDirectory.toPath();
+        final Path toRoot = toDirectory.toPath();
+        final List<File> copies = new ArrayList<>();
+        try {
+            Files.walkFileTree(fromRoot, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path directory, final BasicFileAttributes attributes)
+                        throws IOException {
+                    Files.createDirectories(toRoot.resolve(fromRoot.relativize(directory)));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                    final File copy = toRoot.resolve(fromRoot.relativize(file)).toFile();
+                    copyFile(file.toFile(), copy);
+                    copies.add(copy);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            final String message = String.format("Unable to copy directory %s to %s: %s", fromDirectory,
+                    toDirectory, e.getMessage());
+            log.error(message);
+            throw new MojoExecutionException(message, e);
+        }
+        return copies;
+    }
+
+    /**
+     * Waits for all of the submitted copies to complete, and logs how many files and bytes were copied at which
+     * rate.
+     *
+     * @throws MojoExecutionException if one of the copies failed.
+     */
+    public void await() throws MojoExecutionException {
+        if (futures.isEmpty()) {
+            return;
+        }
+        try {
+            SharedFunctions.awaitAll(futures);
+        } finally {
+            futures.clear();
+        }
+        final long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        final double megabytes = copiedBytes.getAndSet(0) / BYTES_PER_MEGABYTE;
+        log.info(String.format("Copied %d files, %.1f MB in %d ms (%.1f MB/s)", copiedFiles.getAndSet(0),
+                megabytes, elapsedMillis, megabytes * MILLIS_PER_SECOND / elapsedMillis));
+    }
+
+    /**
+     * Stops the threads of this copier, cancelling any copies that have not been waited for.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Copies a single file, and counts it.
+     *
+     * @param fromPath the {@link Path} from which to copy.
+     * @param toPath the {@link Path} to which to copy into.
+     * @throws MojoExecutionException if the copy fails.
+     */
+    private void copy(final Path fromPath, final Path toPath) throws MojoExecutionException {
+        try {
+            final Path parent = toPath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.copy(fromPath, toPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            copiedFiles.incrementAndGet();
+            copiedBytes.addAndGet(Files.size(toPath));
+        } catch (final IOException e) {
+            final String message = String.format("Unable to copy file %s to %s: %s", fromPath, toPath,
+                    e.getMessage());
+            log.error(message);
+            throw new MojoExecutionException(message, e);
+        }
+    }
+
+    /**
+     * Writes content to a single file, and counts it.
+     *
+     * @param content the bytes to write.
+     * @param toPath the {@link Path} to write to.
+     * @throws MojoExecutionException if the write fails.
+     */
+    private void write(final byte[] content, final Path toPath) throws MojoExecutionException {
+        try {
+            final Path parent = toPath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(toPath, content);
+            copiedFiles.incrementAndGet();
+            copiedBytes.addAndGet(content.length);
+        } catch (final IOException e) {
+            final String message = String.format("Unable to write file %s: %s", toPath, e.getMessage());
+            log.error(message);
+            throw new MojoExecutionException(message, e);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+
+/**
+ * Creates a zip file by deflating its entries on a thread pool, and then appending the deflated entries to a
+ * {@link ZipArchiveOutputStream} as raw entries, in the order in which they were added.
+ *
+ * <p>Entries are written as soon as they are deflated while more are added, and {@link #addFile(String, File)}
+ * blocks while too many entries are in flight, so that only a few entries per thread are held in memory
+ * however many files the zip file has. The in-flight entries are also limited to a memory budget, see
+ * {@link #setMemoryLimit(long)}, and a file larger than the budget is deflated by the
+ * {@link ZipArchiveOutputStream} itself, on the calling thread, rather than in memory.</p>
+ *
+ * <p>Unlike commons-compress' <code>ParallelScatterZipCreator</code>, this lets us choose the {@link Deflater}
+ * level and strategy, and write entries that are not worth deflating as <code>STORED</code>.</p>
+ *
+ * @since 1.8
+ */
+public final class ParallelZipCreator implements AutoCloseable {
+
+    /** The number of entries per thread that can be deflated, or waiting to be written, at once. */
+    private static final int PENDING_ENTRIES_PER_THREAD = 4;
+
+    /** The default of the {@link #memoryLimit}, 256 MiB. */
+    private static final long DEFAULT_MEMORY_LIMIT = 256L * 1024 * 1024;
+
+    /** The size of the buffer used to read the files. */
+    private static final int BUFFER_BYTE_SIZE = 64 * SharedFunctions.BUFFER_BYTE_SIZE;
+
+    /** The zip file that the entries are written to. */
+    private final ZipArchiveOutputStream zipArchiveOutputStream;
+
+    /** The maximum number of {@link #pendingEntries}. */
+    private final int maxPendingEntries;
+
+    /** The thread pool that deflates the entries. */
+    private final ExecutorService executorService;
+
+    /** The {@link Deflater} level. */
+    private final int level;
+
+    /** The {@link Deflater} strategy. */
+    private final int strategy;
+
+    /** The rules that decide which entries are stored rather than deflated. */
+    private final StoredEntryRules storedEntryRules;
+
+    /** The entries of the previous zip file that can be reused, or <code>null</code> to deflate every entry. */
+    private final ReusableZipEntries reusableZipEntries;
+
+    /** The entries being deflated, or waiting to be written, in the order in which they were added. */
+    private final Queue<PendingEntry> pendingEntries = new ArrayDeque<>();
+
+    /** The sum of the sizes of the files of the {@link #pendingEntries}. */
+    private long pendingBytes;
+
+    /** The maximum of the {@link #pendingBytes}. */
+    private long memoryLimit = DEFAULT_MEMORY_LIMIT;
+
+    /** The {@link Deflater} of each thread, reused for all of the entries that the thread deflates. */
+    private final ThreadLocal<Deflater> deflaters = new ThreadLocal<>();
+
+    /** All of the {@link Deflater}'s created by the threads, so that they can be ended on {@link #close()}. */
+    private final Queue<Deflater> allDeflaters = new ConcurrentLinkedQueue<>();
+
+    /** The modification time of all of the entries, or a negative value to use the times of the files. */
+    private long entryTime = -1;
+
+    /**
+     * Creates a zip file creator.
+     *
+     * @param zipArchiveOutputStream the {@link ZipArchiveOutputStream} to write to, which the caller closes.
+     * @param threads the number of threads that deflate entries. A <code>null</code> or a value less than one
+     *                means the number of processors available to the JVM.
+     * @param level the {@link Deflater} level.
+     * @param strategy the {@link Deflater} strategy.
+     * @param storedEntryRules the rules that decide which entries are stored rather than deflated.
+     */
+    public ParallelZipCreator(final ZipArchiveOutputStream zipArchiveOutputStream, final Integer threads,
+                              final int level, final int strategy, final StoredEntryRules storedEntryRules) {
+        this(zipArchiveOutputStream, threads, level, strategy, storedEntryRules, null);
+    }
+
+    /**
+     * Creates a zip file creator that copies the entries of a previous zip file whose files have not changed,
+     * instead of deflating them again.
+     *
+     * @param zipArchiveOutputStream the {@link ZipArchiveOutputStream} to write to, which the caller closes.
+     * @param threads the number of threads that deflate entries. A <code>null</code> or a value less than one
+     *                means the number of processors available to the JVM.
+     * @param level the {@link Deflater} level.
+     * @param strategy the {@link Deflater} strategy.
+     * @param storedEntryRules the rules that decide which entries are stored rather than deflated.
+     * @param reusableZipEntries the entries of the previous zip file, or <code>null</code> to deflate every entry.
+     */
+    public ParallelZipCreator(final ZipArchiveOutputStream zipArchiveOutputStream, final Integer threads,
+                              final int level, final int strategy, final StoredEntryRules storedEntryRules,
+                              final ReusableZipEntries reusableZipEntries) {
+        this.zipArchiveOutputStream = zipArchiveOutputStream;
+        this.maxPendingEntries = SharedFunctions.getThreadCount(threads) * PENDING_ENTRIES_PER_THREAD;
+        this.executorService = SharedFunctions.newFixedThreadPool(threads);
+        this.level = level;
+        this.strategy = strategy;
+        this.storedEntryRules = storedEntryRules;
+        this.reusableZipEntries = reusableZipEntries;
+    }
+
+    /**
+     * Sets the modification time of all of the entries, instead of the modification times of their files, which
+     * makes the zip file reproducible. This has to be called before the first entry is added.
+     *
+     * @param entryTime the modification time, in milliseconds since the epoch, or a negative value to use the
+     *                  modification times of the files.
+     */
+    public void setEntryTime(final long entryTime) {
+        this.entryTime = entryTime;
+    }
+
+    /**
+     * Sets the memory budget of the entries in flight, as the sum of the sizes of their files, which bounds the
+     * size of their deflated contents held in memory. This has to be called before the first entry is added.
+     *
+     * @param memoryLimit the memory budget, in bytes.
+     */
+    public void setMemoryLimit(final long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Submits a file to be deflated as an entry of the zip file. If too many entries are in flight, or their
+     * files add up to more than the memory budget, this first writes the oldest ones, waiting for them to be
+     * deflated. A file larger than the whole budget is written once all of the entries in flight are.
+     *
+     * @param entryName the name of the entry.
+     * @param file the {@link File} with the contents of the entry.
+     * @throws IOException if one of the files cannot be read, or the zip file cannot be written.
+     */
+    public void addFile(final String entryName, final File file) throws IOException {
+        final long size = file.length();
+        if (size > memoryLimit) {
+            finish();
+            writeDirectly(entryName, file);
+            return;
+        }
+        while (!pendingEntries.isEmpty()
+                && (pendingEntries.size() >= maxPendingEntries || pendingBytes + size > memoryLimit)) {
+            writeNext();
+        }
+        pendingEntries.add(new PendingEntry(executorService.submit(() -> deflate(entryName, file)), size));
+        pendingBytes += size;
+    }
+
+    /**
+     * Writes all of the entries that are still in flight, in the order in which they were added, as soon as
+     * each one has been deflated.
+     *
+     * @throws IOException if one of the files cannot be read, or the zip file cannot be written.
+     */
+    public void finish() throws IOException {
+        while (!pendingEntries.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    /**
+     * Stops the threads of this creator and frees the native memory of its {@link Deflater}'s.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+        Deflater deflater;
+        while ((deflater = allDeflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Waits for the oldest entry in flight to be deflated, and writes it.
+     *
+     * @throws IOException if the file of the entry cannot be read, the zip file cannot be written, or the
+     *                     waiting thread is interrupted.
+     */
+    private void writeNext() throws IOException {
+        final PendingEntry pendingEntry = pendingEntries.remove();
+        pendingBytes -= pendingEntry.reservedBytes;
+        final DeflatedEntry deflatedEntry;
+        try {
+            deflatedEntry = pendingEntry.future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        try (InputStream rawInputStream = deflatedEntry.previousEntry != null
+                ? reusableZipEntries.getRawInputStream(deflatedEntry.previousEntry)
+                : deflatedEntry.data.toInputStream()) {
+            zipArchiveOutputStream.addRawArchiveEntry(deflatedEntry.entry, rawInputStream);
+        }
+    }
+
+    /**
+     * Writes a file that is too large to be deflated in memory through the {@link ZipArchiveOutputStream}, which
+     * deflates it with its own {@link Deflater} on the calling thread, unless it can be copied from the
+     * {@link #reusableZipEntries}.
+     *
+     * @param entryName the name of the entry.
+     * @param file the {@link File} with the contents of the entry.
+     * @throws IOException if the file cannot be read, or the zip file cannot be written.
+     */
+    private void writeDirectly(final String entryName, final File file) throws IOException {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(entryName);
+        entry.setTime(entryTime < 0 ? file.lastModified() : entryTime);
+        final boolean stored = storedEntryRules.isStored(file);
+        entry.setMethod(stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+        final ZipArchiveEntry previousEntry = reusableZipEntries == null ? null
+                : reusableZipEntries.findUnchanged(entryName, file, stored);
+        if (previousEntry != null) {
+            entry.setSize(previousEntry.getSize());
+            entry.setCompressedSize(previousEntry.getCompressedSize());
+            entry.setCrc(previousEntry.getCrc());
+            try (InputStream rawInputStream = reusableZipEntries.getRawInputStream(previousEntry)) {
+                zipArchiveOutputStream.addRawArchiveEntry(entry, rawInputStream);
+            }
+        } else {
+            if (stored) {
+                // a stored entry needs its size and CRC up front
+                entry.setSize(file.length());
+                entry.setCrc(FileUtils.checksumCRC32(file));
+            }
+            zipArchiveOutputStream.putArchiveEntry(entry);
+            Files.copy(file.toPath(), zipArchiveOutputStream);
+            zipArchiveOutputStream.closeArchiveEntry();
+        }
+    }
+
+    /**
+     * Reads a file and deflates it, or stores it as it is if the {@link #storedEntryRules} say so, unless the
+     * {@link #reusableZipEntries} have an entry for the file that is unchanged.
+     *
+     * @param entryName the name of the entry.
+     * @param file the {@link File} with the contents of the entry.
+     * @return the {@link DeflatedEntry}, with its sizes and CRC set.
+     * @throws IOException if the file cannot be read.
+     */
+    private DeflatedEntry deflate(final String entryName, final File file) throws IOException {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(entryName);
+        entry.setTime(entryTime < 0 ? file.lastModified() : entryTime);
+        final boolean stored = storedEntryRules.isStored(file);
+        entry.setMethod(stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+        if (reusableZipEntries != null) {
+            final ZipArchiveEntry previousEntry = reusableZipEntries.findUnchanged(entryName, file, stored);
+            if (previousEntry != null) {
+                entry.setSize(previousEntry.getSize());
+                entry.setCompressedSize(previousEntry.getCompressedSize());
+                entry.setCrc(previousEntry.getCrc());
+                return new DeflatedEntry(entry, null, previousEntry);
+            }
+        }
+        final UnsynchronizedByteArrayOutputStream data = new UnsynchronizedByteArrayOutputStream();
+        final CRC32 crc = new CRC32();
+        long size = 0;
+        final Deflater deflater = getDeflater();
+        try (InputStream inputStream = Files.newInputStream(file.toPath());
+             OutputStream outputStream = stored ? data : new DeflaterOutputStream(data, deflater, BUFFER_BYTE_SIZE)) {
+            final byte[] buffer = new byte[BUFFER_BYTE_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                outputStream.write(buffer, 0, read);
+                size += read;
+            }
+        } finally {
+            deflater.reset();
+        }
+        entry.setSize(size);
+        entry.setCompressedSize(data.size());
+        entry.setCrc(crc.getValue());
+        return new DeflatedEntry(entry, data, null);
+    }
+
+    /**
+     * Gets the {@link Deflater} of the current thread, creating it on first use.
+     *
+     * @return the {@link Deflater}, ready for a new entry.
+     */
+    private Deflater getDeflater() {
+        Deflater deflater = deflaters.get();
+        if (deflater == null) {
+            // zip entries hold raw deflate data, without the zlib header and checksum
+            deflater = new Deflater(level, true);
+            deflater.setStrategy(strategy);
+            deflaters.set(deflater);
+            allDeflaters.add(deflater);
+        }
+        return deflater;
+    }
+
+    /**
+     * An entry in flight, with the share of the memory budget that it holds.
+     */
+    private static final class PendingEntry {
+
+        /** The entry being deflated. */
+        private final Future<DeflatedEntry> future;
+
+        /** The size of the file of the entry, counted in the {@link ParallelZipCreator#pendingBytes}. */
+        private final long reservedBytes;
+
+        /**
+         * Creates a pending entry.
+         *
+         * @param future the entry being deflated.
+         * @param reservedBytes the size of the file of the entry.
+         */
+        private PendingEntry(final Future<DeflatedEntry> future, final long reservedBytes) {
+            this.future = future;
+            this.reservedBytes = reservedBytes;
+        }
+    }
+
+    /**
+     * An entry whose contents have been deflated, or stored, in memory, or that is copied from the previous zip
+     * file.
+     */
+    private static final class DeflatedEntry {
+
+        /** The entry, with its method, sizes and CRC set. */
+        private final ZipArchiveEntry entry;
+
+        /** The contents of the entry as they are written to the zip file, unless it is copied. */
+        private final UnsynchronizedByteArrayOutputStream data;
+
+        /** The entry of the previous zip file to copy the contents from, or <code>null</code>. */
+        private final ZipArchiveEntry previousEntry;
+
+        /**
+         * Creates a deflated entry.
+         *
+         * @param entry the entry, with its method, sizes and CRC set.
+         * @param data the contents of the entry as they are written to the zip file, unless it is copied.
+         * @param previousEntry the entry of the previous zip file to copy the contents from, or <code>null</code>.
+         */
+        private DeflatedEntry(final ZipArchiveEntry entry, final UnsynchronizedByteArrayOutputStream data,
+                              final ZipArchiveEntry previousEntry) {
+            this.entry = entry;
+            this.data = data;
+            this.previousEntry = previousEntry;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which direct children of the dist staging area to delete, given a verbose listing of it. Without any
+ * rules, everything is deleted. Each rule keeps some of the children, and a child is only deleted if no rule keeps
+ * it:
+ * <ul>
+ *   <li>keep the latest N release candidate directories, named like <code>1.4-RC2</code>, by the revision in which
+ *   they last changed,</li>
+ *   <li>keep the children whose name matches a regular expression, for example <code>2\..*</code>,</li>
+ *   <li>keep the children that changed less than a given number of days ago.</li>
+ * </ul>
+ * The other children, like the <code>README.html</code>, <code>HEADER.html</code>, <code>site.zip</code> and
+ * <code>site</code> that are staged at the root along with a release candidate, are also kept if they changed in or
+ * after the revision of the newest release candidate that is kept, as they belong to it.
+ *
+ * @since 1.8
+ */
+public final class RetentionPolicy {
+
+    /** Matches the names of the release candidate directories, <code>&lt;version&gt;-RC&lt;n&gt;</code>. */
+    private static final Pattern RELEASE_CANDIDATE = Pattern.compile(".+-RC\\d+");
+
+    /** The number of latest release candidate directories to keep, or <code>null</code>. */
+    private final Integer keepLatest;
+
+    /** The pattern of the names of the children to keep, or <code>null</code>. */
+    private final Pattern keepPattern;
+
+    /** The age from which children are no longer kept, or <code>null</code>. */
+    private final Duration maxAge;
+
+    /**
+     * Creates a policy.
+     *
+     * @param keepLatest the number of latest release candidate directories to keep, or <code>null</code>.
+     * @param keepPattern the regular expression matching the names of the children to keep, or <code>null</code>.
+     * @param maxAgeDays the number of days after which children are no longer kept, or <code>null</code>.
+     * @throws IllegalArgumentException if a number is negative, or the regular expression is not valid.
+     */
+    public RetentionPolicy(final Integer keepLatest, final String keepPattern, final Integer maxAgeDays) {
+        if (keepLatest != null && keepLatest < 0 || maxAgeDays != null && maxAgeDays < 0) {
+            throw new IllegalArgumentException("Retention counts cannot be negative: keep latest " + keepLatest
+                    + ", max age days " + maxAgeDays);
+        }
+        this.keepLatest = keepLatest;
+        this.keepPattern = keepPattern == null || keepPattern.trim().isEmpty() ? null : Pattern.compile(keepPattern);
+        this.maxAge = maxAgeDays == null ? null : Duration.ofDays(maxAgeDays);
+    }
+
+    /**
+     * Tells whether this policy has any rule, rather than deleting everything.
+     *
+     * @return <code>true</code> if at least one rule is set.
+     */
+    public boolean hasRules() {
+        return keepLatest != null || keepPattern != null || maxAge != null;
+    }
+
+    /**
+     * Selects the direct children of the listed URL to delete.
+     *
+     * @param entries the entries of a recursive, or a flat, verbose listing of the URL.
+     * @param now the current time, that the ages of the children are measured from.
+     * @return the direct children that no rule keeps, in the order of the listing.
+     */
+    public List<SvnListEntry> selectForDeletion(final List<SvnListEntry> entries, final Instant now) {
+        final List<SvnListEntry> children = new ArrayList<>();
+        for (final SvnListEntry entry : entries) {
+            if (entry.isTopLevel()) {
+                children.add(entry);
+            }
+        }
+        final Set<String> kept = new HashSet<>();
+        if (keepLatest != null) {
+            final List<SvnListEntry> latestFirst = new ArrayList<>();
+            for (final SvnListEntry child : children) {
+                if (isReleaseCandidate(child)) {
+                    latestFirst.add(child);
+                }
+            }
+            latestFirst.sort(Comparator.comparingLong(SvnListEntry::getRevision).reversed());
+            for (final SvnListEntry child : latestFirst.subList(0, Math.min(keepLatest, latestFirst.size()))) {
+                kept.add(child.getName());
+            }
+        }
+        long newestKeptRevision = -1;
+        final List<SvnListEntry> deleted = new ArrayList<>();
+        for (final SvnListEntry child : children) {
+            final boolean keptByPattern = keepPattern != null && keepPattern.matcher(child.getName()).matches();
+            final boolean keptByAge = maxAge != null && child.getDate().isAfter(now.minus(maxAge));
+            if (!kept.contains(child.getName()) && !keptByPattern && !keptByAge) {
+                deleted.add(child);
+            } else if (isReleaseCandidate(child)) {
+                newestKeptRevision = Math.max(newestKeptRevision, child.getRevision());
+            }
+        }
+        if (newestKeptRevision >= 0) {
+            // the root files staged along with the newest kept release candidate belong to it
+            final long newestRevision = newestKeptRevision;
+            deleted.removeIf(child -> !isReleaseCandidate(child) && child.getRevision() >= newestRevision);
+        }
+        return deleted;
+    }
+
+    /**
+     * Tells whether a direct child of the staging area is a release candidate directory.
+     *
+     * @param child the direct child.
+     * @return <code>true</code> if it is a directory named <code>&lt;version&gt;-RC&lt;n&gt;</code>.
+     */
+    private static boolean isReleaseCandidate(final SvnListEntry child) {
+        return child.isDirectory() && RELEASE_CANDIDATE.matcher(child.getName()).matches();
+    }
+
+    /**
+     * Sums the sizes of the files under the given direct children of the listed URL, which is the space that
+     * deleting them reclaims.
+     *
+     * @param entries the entries of a recursive verbose listing of the URL.
+     * @param children the direct children.
+     * @return the number of bytes in the files under the children.
+     */
+    public static long getSize(final List<SvnListEntry> entries, final List<SvnListEntry> children) {
+        long size = 0;
+        for (final SvnListEntry entry : entries) {
+            for (final SvnListEntry child : children) {
+                if (entry.isUnder(child.getName())) {
+                    size += entry.getSize();
+                    break;
+                }
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * The entries of a previously written zip file that can be copied, still compressed, into a new zip file
+ * because the file they were made from has not changed. This lets a <code>site.zip</code> be rebuilt by
+ * deflating only the pages that changed since the previous build.
+ *
+ * <p>An entry is reused if it has the same size as the file, and either the same modification time, within the
+ * two seconds resolution of zip timestamps, or the same CRC-32. Entries are only reused if the previous zip file
+ * was written with the same deflate level and strategy, which are recorded in its comment, see
+ * {@link #getComment(int, int)}.</p>
+ *
+ * @since 1.8
+ */
+public final class ReusableZipEntries implements AutoCloseable {
+
+    /** The resolution of the modification times in a zip file. */
+    private static final long ZIP_TIME_RESOLUTION_MILLIS = 2000;
+
+    /** The previous zip file, or <code>null</code> if none of its entries can be reused. */
+    private final ZipFile previousZipFile;
+
+    /** The number of entries reused so far. */
+    private final AtomicInteger reusedCount = new AtomicInteger();
+
+    /**
+     * Opens a previous zip file.
+     *
+     * @param previousZip the previous zip file, which may not exist.
+     * @param comment the comment of the zip file being written, see {@link #getComment(int, int)}. Entries are
+     *                only reused if the previous zip file has the same comment.
+     * @throws IOException if the previous zip file exists but cannot be read.
+     */
+    public ReusableZipEntries(final File previousZip, final String comment) throws IOException {
+        if (!previousZip.isFile()) {
+            previousZipFile = null;
+            return;
+        }
+        final String previousComment;
+        try (java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(previousZip)) {
+            previousComment = zipFile.getComment();
+        }
+        previousZipFile = comment.equals(previousComment) ? new ZipFile(previousZip) : null;
+    }
+
+    /**
+     * Gets the comment that records how the entries of a zip file are deflated.
+     *
+     * @param level the {@link java.util.zip.Deflater} level.
+     * @param strategy the {@link java.util.zip.Deflater} strategy.
+     * @return the comment.
+     */
+    public static String getComment(final int level, final int strategy) {
+        return String.format(Locale.ROOT, "deflate level %d strategy %d", level, strategy);
+    }
+
+    /**
+     * Finds the entry of the previous zip file that was made from the given file, if the file has not changed.
+     * This is thread safe.
+     *
+     * @param entryName the name of the entry.
+     * @param file the {@link File} that the entry is made from.
+     * @param stored whether the new entry is <code>STORED</code> rather than deflated.
+     * @return the previous entry, or <code>null</code> if there is none or the file has changed.
+     * @throws IOException if the file cannot be read to compute its CRC-32.
+     */
+    public ZipArchiveEntry findUnchanged(final String entryName, final File file, final boolean stored)
+            throws IOException {
+        if (previousZipFile == null) {
+            return null;
+        }
+        final ZipArchiveEntry previousEntry = previousZipFile.getEntry(entryName);
+        if (previousEntry == null || previousEntry.getSize() != file.length()
+                || previousEntry.getMethod() != (stored ? ZipEntry.STORED : ZipEntry.DEFLATED)) {
+            return null;
+        }
+        if (Math.abs(previousEntry.getTime() - file.lastModified()) >= ZIP_TIME_RESOLUTION_MILLIS
+                && previousEntry.getCrc() != FileUtils.checksumCRC32(file)) {
+            return null;
+        }
+        reusedCount.incrementAndGet();
+        return previousEntry;
+    }
+
+    /**
+     * Gets the compressed contents of an entry returned by {@link #findUnchanged(String, File, boolean)}.
+     *
+     * @param previousEntry the entry of the previous zip file.
+     * @return an {@link InputStream} of the compressed contents, which has to be closed.
+     * @throws IOException if the previous zip file cannot be read.
+     */
+    public InputStream getRawInputStream(final ZipArchiveEntry previousEntry) throws IOException {
+        return previousZipFile.getRawInputStream(previousEntry);
+    }
+
+    /**
+     * Gets the number of entries reused so far.
+     *
+     * @return the number of entries that {@link #findUnchanged(String, File, boolean)} found.
+     */
+    public int getReusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * Closes the previous zip file.
+     *
+     * @throws IOException if the previous zip file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (previousZipFile != null) {
+            previousZipFile.close();
+        }
+    }
+}
@@ -18,7 +18,16 @@ package org.apache.commons.release.plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -29,6 +38,9 @@ import org.apache.maven.settings.crypto.DefaultSettingsDecryptionRequest;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
 import org.apache.maven.settings.crypto.SettingsDecryptionResult;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
 
 /**
  * Shared static functions for all of our Mojos.
@@ -44,6 +56,12 @@ public final class SharedFunctions {
      */
     public static final int BUFFER_BYTE_SIZE = 1024;
 
+    /**
+     * The size of the buffer used when reading files to compute their digests. Distributions are
+     * usually large, so we read them in bigger chunks than {@link #BUFFER_BYTE_SIZE}.
+     */
+    private static final int DIGEST_BUFFER_BYTE_SIZE = 64 * BUFFER_BYTE_SIZE;
+
     /**
      * Making the constructor private because the class only contains static methods.
      */
@@ -95,6 +113,139 @@ public final class SharedFunctions {
         }
     }
 
+    /**
+     * Copies a {@link File} from the <code>fromFile</code> to the <code>toFile</code> while feeding every byte that
+     * is read into each of the given {@link MessageDigest}'s. This way the file only comes off of the disk once,
+     * even though we both need a copy of it and one or more digests of it.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param digestMode the {@link DigestMode} used to read <code>fromFile</code>.
+     * @param fromFile the {@link File} from which to copy.
+     * @param toFile the {@link File} to which to copy into.
+     * @param messageDigests the {@link MessageDigest}'s to update with the contents of <code>fromFile</code>.
+     * @throws MojoExecutionException if an {@link IOException} or {@link NullPointerException} is caught.
+     */
+    public static void copyFileAndDigest(final Log log, final DigestMode digestMode, final File fromFile,
+                                         final File toFile, final MessageDigest... messageDigests)
+            throws MojoExecutionException {
+        try {
+            final File parent = toFile.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            digestMode.copyAndDigest(fromFile, toFile, messageDigests);
+        } catch (IOException | NullPointerException e) {
+            final String message = String.format("Unable to copy file %s to %s: %s", fromFile, toFile, e.getMessage());
+            log.error(message);
+            throw new MojoExecutionException(message, e);
+        }
+    }
+
+    /**
+     * Gets the file extension used for the digest files of the given algorithm, for example <code>sha512</code>
+     * for <code>SHA-512</code>. This is also the base name of the properties file listing the digests of all the
+     * artifacts, for example <code>sha512.properties</code>.
+     *
+     * @param algorithm the name of a {@link MessageDigest} algorithm.
+     * @return the file extension for the algorithm.
+     */
+    public static String getDigestFileExtension(final String algorithm) {
+        return algorithm.toLowerCase(Locale.ROOT).replace("-", "");
+    }
+
+    /**
+     * Copies the <code>inputStream</code> to the <code>outputStream</code>, if there is one, and updates the
+     * <code>messageDigests</code> from the same buffer.
+     *
+     * @param inputStream the {@link InputStream} to read from.
+     * @param outputStream the {@link OutputStream} to write to, or <code>null</code> to only compute the digests.
+     * @param messageDigests the {@link MessageDigest}'s to update.
+     * @throws IOException if reading or writing fails.
+     */
+    static void updateDigests(final InputStream inputStream, final OutputStream outputStream,
+                                      final MessageDigest... messageDigests) throws IOException {
+        final byte[] buffer = new byte[DIGEST_BUFFER_BYTE_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            for (final MessageDigest messageDigest : messageDigests) {
+                messageDigest.update(buffer, 0, read);
+            }
+            if (outputStream != null) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Creates a fixed size thread pool for running independent units of work, like hashing or copying
+     * files, in parallel.
+     *
+     * @param threads the number of threads in the pool. A <code>null</code> or a value less than one means
+     *                the number of processors available to the JVM.
+     * @return a new {@link ExecutorService} that the caller is responsible for shutting down.
+     */
+    public static ExecutorService newFixedThreadPool(final Integer threads) {
+        return Executors.newFixedThreadPool(getThreadCount(threads));
+    }
+
+    /**
+     * Gets the number of threads of a pool created by {@link #newFixedThreadPool(Integer)}.
+     *
+     * @param threads the configured number of threads, which may be <code>null</code>.
+     * @return the configured number of threads, or the number of processors available to the JVM if the
+     *         configured number is <code>null</code> or less than one.
+     */
+    public static int getThreadCount(final Integer threads) {
+        return threads == null || threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+    }
+
+    /**
+     * Waits for all of the given {@link Future}'s to complete, and rethrows the first failure in a way that
+     * Maven can handle it.
+     *
+     * @param futures the {@link List} of {@link Future}'s to wait for.
+     * @throws MojoExecutionException if one of the tasks failed or the waiting thread was interrupted.
+     */
+    public static void awaitAll(final List<? extends Future<?>> futures) throws MojoExecutionException {
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("Interrupted while waiting for a task to complete", e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof MojoExecutionException) {
+                    throw (MojoExecutionException) e.getCause();
+                }
+                throw new MojoExecutionException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Runs a command line, like <code>svn</code> or <code>git</code>, and collects its output.
+     *
+     * @param commandLine the {@link Commandline} to run.
+     * @param failureMessage the message of the exception thrown when the command fails.
+     * @return the standard output of the command.
+     * @throws MojoExecutionException if the command cannot be run or exits with an error.
+     */
+    public static String executeCommandLine(final Commandline commandLine, final String failureMessage)
+            throws MojoExecutionException {
+        final CommandLineUtils.StringStreamConsumer stdout = new CommandLineUtils.StringStreamConsumer();
+        final CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+        final int exitCode;
+        try {
+            exitCode = CommandLineUtils.executeCommandLine(commandLine, stdout, stderr);
+        } catch (final CommandLineException e) {
+            throw new MojoExecutionException(failureMessage + ": " + e.getMessage(), e);
+        }
+        if (exitCode != 0) {
+            throw new MojoExecutionException(failureMessage + ": [" + stderr.getOutput() + "]");
+        }
+        return stdout.getOutput();
+    }
+
     /**
      * Set authentication information on the specified {@link ScmProviderRepository}.
      * @param providerRepository target.
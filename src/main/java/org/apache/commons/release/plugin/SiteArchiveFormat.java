@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.UnsupportedOptionsException;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * The formats in which the site can be archived. The tar based formats are compressed in independent blocks on
+ * several threads by a {@link ParallelBlockOutputStream}, whose output standard tools read as a single stream.
+ *
+ * @since 1.8
+ */
+public enum SiteArchiveFormat {
+
+    /**
+     * A zip file, whose entries are compressed one by one, so it has no {@link TarCompressor}.
+     */
+    ZIP("zip", null),
+
+    /**
+     * A tar file compressed with gzip, in blocks that are written as concatenated gzip members.
+     */
+    TAR_GZ("tar.gz", SiteArchiveFormat::newGzipOutputStream),
+
+    /**
+     * A tar file compressed with xz, in blocks that are written as concatenated xz streams.
+     */
+    TAR_XZ("tar.xz", SiteArchiveFormat::newXzOutputStream);
+
+    /**
+     * Compresses a whole tar archive, on several threads.
+     */
+    public interface TarCompressor {
+
+        /**
+         * Wraps a stream in a compressor, which compresses on several threads.
+         *
+         * @param out the {@link OutputStream} to write the compressed archive to, which is closed with the
+         *            compressor.
+         * @param threads the number of threads that compress. A <code>null</code> or a value less than one means
+         *                the number of processors available to the JVM.
+         * @param level the {@link Deflater} level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}, which is
+         *              mapped to the preset of the same number for xz.
+         * @return the compressor {@link OutputStream}.
+         * @throws IOException if the compressor cannot be created.
+         */
+        OutputStream newCompressorOutputStream(OutputStream out, Integer threads, int level) throws IOException;
+    }
+
+    /**
+     * The algorithm of the digest that is written next to a reproducible site archive.
+     */
+    public static final String DIGEST_ALGORITHM = "SHA-512";
+
+    /** The size of the blocks that are compressed with gzip independently of each other. */
+    private static final int GZIP_BLOCK_BYTE_SIZE = 1024 * SharedFunctions.BUFFER_BYTE_SIZE;
+
+    /**
+     * The size of the blocks that are compressed with xz independently of each other, which is larger than for
+     * gzip, as xz finds matches much further back.
+     */
+    private static final int XZ_BLOCK_BYTE_SIZE = 4 * GZIP_BLOCK_BYTE_SIZE;
+
+    /** The file name extension of the format. */
+    private final String extension;
+
+    /** The {@link TarCompressor} of a tar based format, or <code>null</code> for {@link #ZIP}. */
+    private final TarCompressor tarCompressor;
+
+    /**
+     * Creates a format.
+     *
+     * @param extension the file name extension of the format.
+     * @param tarCompressor sets the {@link #tarCompressor}.
+     */
+    SiteArchiveFormat(final String extension, final TarCompressor tarCompressor) {
+        this.extension = extension;
+        this.tarCompressor = tarCompressor;
+    }
+
+    /**
+     * Gets the file name extension of the format, without the leading dot.
+     *
+     * @return the extension, for example <code>tar.gz</code>.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Gets the name of the site archive in this format.
+     *
+     * @return <code>site.</code> followed by the {@link #getExtension()}, for example <code>site.zip</code>.
+     */
+    public String getFileName() {
+        return "site." + extension;
+    }
+
+    /**
+     * Gets the name of the file holding the {@link #DIGEST_ALGORITHM} digest of the site archive in this format.
+     *
+     * @return the {@link #getFileName()} followed by <code>.sha512</code>.
+     */
+    public String getDigestFileName() {
+        return getFileName() + "." + SharedFunctions.getDigestFileExtension(DIGEST_ALGORITHM);
+    }
+
+    /**
+     * Gets the {@link SiteArchiveFormat} with the given extension, ignoring case.
+     *
+     * @param name the extension of the format, for example <code>tar.xz</code>.
+     * @return the {@link SiteArchiveFormat}.
+     * @throws IllegalArgumentException if there is no format with that extension.
+     */
+    public static SiteArchiveFormat fromName(final String name) {
+        final String trimmed = name.trim().toLowerCase(Locale.ROOT);
+        for (final SiteArchiveFormat format : values()) {
+            if (format.extension.equals(trimmed)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown site archive format: " + name);
+    }
+
+    /**
+     * Gets the compressor of the whole archive, which only the tar based formats have.
+     *
+     * @return the {@link TarCompressor}, or <code>null</code> for {@link #ZIP}.
+     */
+    public TarCompressor getTarCompressor() {
+        return tarCompressor;
+    }
+
+    /**
+     * Wraps a stream in a gzip compressor that compresses blocks on several threads.
+     *
+     * @param out the {@link OutputStream} to write the compressed archive to.
+     * @param threads the number of threads that compress.
+     * @param level the {@link Deflater} level.
+     * @return the compressor {@link OutputStream}.
+     * @see TarCompressor#newCompressorOutputStream(OutputStream, Integer, int)
+     */
+    private static OutputStream newGzipOutputStream(final OutputStream out, final Integer threads, final int level) {
+        return new ParallelBlockOutputStream(out, threads, GZIP_BLOCK_BYTE_SIZE, (block, blockOut) -> {
+            final GzipParameters parameters = new GzipParameters();
+            parameters.setCompressionLevel(level);
+            try (GzipCompressorOutputStream gzip = new GzipCompressorOutputStream(blockOut, parameters)) {
+                gzip.write(block);
+            }
+        });
+    }
+
+    /**
+     * Wraps a stream in an xz compressor that compresses blocks on several threads.
+     *
+     * @param out the {@link OutputStream} to write the compressed archive to.
+     * @param threads the number of threads that compress.
+     * @param level the {@link Deflater} level, which is mapped to the xz preset of the same number.
+     * @return the compressor {@link OutputStream}.
+     * @throws IOException if the level is not a valid xz preset.
+     * @see TarCompressor#newCompressorOutputStream(OutputStream, Integer, int)
+     */
+    private static OutputStream newXzOutputStream(final OutputStream out, final Integer threads, final int level)
+            throws IOException {
+        final LZMA2Options options = new LZMA2Options(level == Deflater.DEFAULT_COMPRESSION
+                ? LZMA2Options.PRESET_DEFAULT : level);
+        // a dictionary larger than a block is never used, but costs memory on every thread
+        try {
+            options.setDictSize(Math.min(options.getDictSize(), XZ_BLOCK_BYTE_SIZE));
+        } catch (final UnsupportedOptionsException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return new ParallelBlockOutputStream(out, threads, XZ_BLOCK_BYTE_SIZE, (block, blockOut) -> {
+            try (XZOutputStream xz = new XZOutputStream(blockOut, options)) {
+                xz.write(block);
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Decides which files are not worth deflating when they are added to a zip file, because they are already
+ * compressed, like images and archives. Those files are better <code>STORED</code>, which saves the CPU time
+ * of deflating them for next to no gain.
+ *
+ * <p>A file is stored if its extension is one of the configured extensions, or, when probing is enabled, if
+ * deflating its first {@value #PROBE_BYTE_SIZE} bytes saves less than {@value #MINIMUM_SAVING_PERCENT}% of
+ * them. Files smaller than the probe are always deflated, as probing them costs as much as deflating them.</p>
+ *
+ * @since 1.8
+ */
+public final class StoredEntryRules {
+
+    /**
+     * The extensions of the files that are stored by default: images, fonts and archives, which are all
+     * compressed already.
+     */
+    public static final List<String> DEFAULT_EXTENSIONS = Collections.unmodifiableList(Arrays.asList(
+            "png", "jpg", "jpeg", "gif", "ico", "webp",
+            "woff", "woff2",
+            "jar", "zip", "gz", "tgz", "bz2", "xz", "zst", "7z"));
+
+    /** The number of bytes at the start of a file that are deflated to probe how compressible it is. */
+    private static final int PROBE_BYTE_SIZE = 64 * SharedFunctions.BUFFER_BYTE_SIZE;
+
+    /** The percentage of the probed bytes that deflating has to save for a file to be deflated. */
+    private static final int MINIMUM_SAVING_PERCENT = 5;
+
+    /** The number of percent in a whole. */
+    private static final int PERCENT = 100;
+
+    /** The lower case extensions of the files that are always stored. */
+    private final Set<String> extensions = new HashSet<>();
+
+    /** Whether to probe the files whose extension is not in {@link #extensions}. */
+    private final boolean probe;
+
+    /**
+     * Creates the rules.
+     *
+     * @param extensions the extensions, without the leading dot, of the files that are always stored, or
+     *                   <code>null</code> for the {@link #DEFAULT_EXTENSIONS}.
+     * @param probe whether to probe how compressible the other files are.
+     */
+    public StoredEntryRules(final List<String> extensions, final boolean probe) {
+        for (final String extension : extensions == null ? DEFAULT_EXTENSIONS : extensions) {
+            this.extensions.add(extension.trim().toLowerCase(Locale.ROOT));
+        }
+        this.probe = probe;
+    }
+
+    /**
+     * Tells whether the given file should be stored rather than deflated.
+     *
+     * @param file the {@link File} that is added to a zip file.
+     * @return <code>true</code> if the file should be stored.
+     * @throws IOException if the file cannot be probed.
+     */
+    public boolean isStored(final File file) throws IOException {
+        final String name = file.getName();
+        final int dot = name.lastIndexOf('.');
+        if (dot >= 0 && extensions.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        return probe && file.length() >= PROBE_BYTE_SIZE && !isCompressible(file);
+    }
+
+    /**
+     * Deflates the first {@value #PROBE_BYTE_SIZE} bytes of the file at the fastest level, and checks whether that
+     * saves at least {@value #MINIMUM_SAVING_PERCENT}% of them.
+     *
+     * @param file the {@link File} to probe.
+     * @return <code>true</code> if deflating the file is worth it.
+     * @throws IOException if the file cannot be read.
+     */
+    private static boolean isCompressible(final File file) throws IOException {
+        final byte[] probeBytes = new byte[PROBE_BYTE_SIZE];
+        final int read;
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            read = IOUtils.read(inputStream, probeBytes);
+        }
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(probeBytes, 0, read);
+            deflater.finish();
+            final byte[] deflated = new byte[PROBE_BYTE_SIZE];
+            long deflatedSize = 0;
+            while (!deflater.finished()) {
+                deflatedSize += deflater.deflate(deflated);
+            }
+            return deflatedSize * PERCENT <= (long) read * (PERCENT - MINIMUM_SAVING_PERCENT);
+        } finally {
+            deflater.end();
+        }
+    }
+}
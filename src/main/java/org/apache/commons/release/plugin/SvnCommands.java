@@ -0,0 +1,510 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.provider.svn.svnexe.command.SvnCommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Subversion commands that the Maven SCM API does not offer, like sparse checkouts, run through the
+ * <code>svn</code> executable with the same authentication options as the SCM provider uses.
+ *
+ * @since 1.8
+ */
+public final class SvnCommands {
+
+    /** Matches the last line of the output of a Subversion commit, and captures the revision. */
+    private static final Pattern COMMITTED_REVISION = Pattern.compile("Committed revision (\\d+)\\.");
+
+    /**
+     * The depths that a working copy can be checked out at, from the shallowest to the deepest.
+     */
+    public static final List<String> DEPTHS =
+            Collections.unmodifiableList(Arrays.asList("empty", "files", "immediates", "infinity"));
+
+    /**
+     * The depth of a checkout of only the root directory, without any of its children.
+     */
+    public static final String EMPTY = "empty";
+
+    /**
+     * The depth of a complete checkout.
+     */
+    public static final String INFINITY = "infinity";
+
+    /**
+     * Making the constructor private because the class only contains static methods.
+     */
+    private SvnCommands() {
+        // Utility Class
+    }
+
+    /**
+     * Checks that the given depth is one that Subversion understands.
+     *
+     * @param depth the depth to check.
+     * @throws MojoExecutionException if the depth is not one of {@link #DEPTHS}.
+     */
+    public static void validateDepth(final String depth) throws MojoExecutionException {
+        if (!DEPTHS.contains(depth)) {
+            throw new MojoExecutionException("Unsupported checkout depth: " + depth + ", expected one of " + DEPTHS);
+        }
+    }
+
+    /**
+     * Creates the command line for <code>svn checkout --depth &lt;depth&gt; &lt;url&gt; .</code> in the given
+     * directory.
+     *
+     * @param repository the {@link SvnScmProviderRepository} to check out, with its credentials.
+     * @param checkoutDirectory the directory to check out into.
+     * @param depth the depth of the checkout, one of {@link #DEPTHS}.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createCheckOutCommandLine(final SvnScmProviderRepository repository,
+                                                        final File checkoutDirectory, final String depth) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(checkoutDirectory, repository);
+        commandLine.createArg().setValue("checkout");
+        commandLine.createArg().setValue("--depth");
+        commandLine.createArg().setValue(depth);
+        commandLine.createArg().setValue(repository.getUrl());
+        commandLine.createArg().setValue(".");
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn update --set-depth &lt;depth&gt; &lt;target&gt;</code> in the given
+     * working copy, which deepens a sparse working copy for just the target.
+     *
+     * @param repository the {@link SvnScmProviderRepository} of the working copy, with its credentials.
+     * @param workingCopy the root of the working copy.
+     * @param depth the depth to set, one of {@link #DEPTHS}.
+     * @param target the path of the target, relative to the root of the working copy.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createUpdateCommandLine(final SvnScmProviderRepository repository,
+                                                      final File workingCopy, final String depth,
+                                                      final String target) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(workingCopy, repository);
+        commandLine.createArg().setValue("update");
+        commandLine.createArg().setValue("--set-depth");
+        commandLine.createArg().setValue(depth);
+        commandLine.createArg().setValue(target);
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn update &lt;target&gt;...</code> in the given working copy, which
+     * brings the targets into a sparse working copy, or updates them if they are already in it.
+     *
+     * @param repository the {@link SvnScmProviderRepository} of the working copy, with its credentials.
+     * @param workingCopy the root of the working copy.
+     * @param targets the paths of the targets, relative to the root of the working copy.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createUpdateFilesCommandLine(final SvnScmProviderRepository repository,
+                                                           final File workingCopy, final List<String> targets) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(workingCopy, repository);
+        commandLine.createArg().setValue("update");
+        for (final String target : targets) {
+            commandLine.createArg().setValue(target);
+        }
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn import . &lt;url&gt;/&lt;path&gt; -m &lt;message&gt;</code> in the
+     * given directory, which commits the contents of the directory to a new path of the repository without a
+     * working copy.
+     *
+     * @param repository the {@link SvnScmProviderRepository} to import into, with its credentials.
+     * @param directory the directory whose contents to import.
+     * @param path the path to import to, relative to the repository URL, which must not exist yet.
+     * @param message the commit message.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createImportCommandLine(final SvnScmProviderRepository repository,
+                                                      final File directory, final String path,
+                                                      final String message) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(directory, repository);
+        commandLine.createArg().setValue("import");
+        commandLine.createArg().setValue(".");
+        commandLine.createArg().setValue(StringUtils.removeEnd(repository.getUrl(), "/") + "/" + path);
+        commandLine.createArg().setValue("-m");
+        commandLine.createArg().setValue(message);
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn list --xml &lt;url&gt;</code>, which lists the children of the
+     * repository URL, with their sizes, revisions and dates, without a working copy.
+     *
+     * @param repository the {@link SvnScmProviderRepository} to list, with its credentials.
+     * @param directory the directory to run the command in.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createListCommandLine(final SvnScmProviderRepository repository,
+                                                    final File directory) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(directory, repository);
+        commandLine.createArg().setValue("list");
+        commandLine.createArg().setValue("--xml");
+        commandLine.createArg().setValue(repository.getUrl());
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn list --xml --recursive &lt;url&gt;</code>, which lists everything under
+     * the repository URL, with the sizes, revisions and dates of the entries, without a working copy.
+     *
+     * @param repository the {@link SvnScmProviderRepository} to list, with its credentials.
+     * @param directory the directory to run the command in.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createVerboseListCommandLine(final SvnScmProviderRepository repository,
+                                                           final File directory) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(directory, repository);
+        commandLine.createArg().setValue("list");
+        commandLine.createArg().setValue("--xml");
+        commandLine.createArg().setValue("--recursive");
+        commandLine.createArg().setValue(repository.getUrl());
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn cat &lt;url&gt;/&lt;path&gt;</code>, which prints a file of the
+     * repository without a working copy.
+     *
+     * @param repository the {@link SvnScmProviderRepository} that the file is in, with its credentials.
+     * @param directory the directory to run the command in.
+     * @param path the path of the file, relative to the repository URL.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createCatCommandLine(final SvnScmProviderRepository repository,
+                                                   final File directory, final String path) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(directory, repository);
+        commandLine.createArg().setValue("cat");
+        commandLine.createArg().setValue(StringUtils.removeEnd(repository.getUrl(), "/") + "/" + path);
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn info --show-item revision &lt;url&gt;</code>, which prints the revision
+     * of the repository URL, like the <code>revision</code> the Ant build read from <code>svn info</code>.
+     *
+     * @param repository the {@link SvnScmProviderRepository} to query, with its credentials.
+     * @param directory the directory to run the command in.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createInfoRevisionCommandLine(final SvnScmProviderRepository repository,
+                                                            final File directory) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(directory, repository);
+        commandLine.createArg().setValue("info");
+        commandLine.createArg().setValue("--show-item");
+        commandLine.createArg().setValue("revision");
+        commandLine.createArg().setValue(repository.getUrl());
+        return commandLine;
+    }
+
+    /**
+     * Creates the command line for <code>svn delete -m &lt;message&gt; &lt;url&gt;...</code>, which deletes the
+     * given URLs in a single commit on the server, without a working copy.
+     *
+     * @param repository the {@link SvnScmProviderRepository} that the URLs are in, with its credentials.
+     * @param directory the directory to run the command in.
+     * @param urls the URLs to delete.
+     * @param message the commit message.
+     * @return the {@link Commandline}.
+     */
+    public static Commandline createDeleteUrlsCommandLine(final SvnScmProviderRepository repository,
+                                                          final File directory, final List<String> urls,
+                                                          final String message) {
+        final Commandline commandLine = SvnCommandLineUtils.getBaseSvnCommandLine(directory, repository);
+        commandLine.createArg().setValue("delete");
+        commandLine.createArg().setValue("-m");
+        commandLine.createArg().setValue(message);
+        for (final String url : urls) {
+            commandLine.createArg().setValue(url);
+        }
+        return commandLine;
+    }
+
+    /**
+     * Parses the revision out of the output of a command that commits, like <code>svn import</code>.
+     *
+     * @param output the output of the command, which ends with <code>Committed revision &lt;n&gt;.</code>.
+     * @return the committed revision, or <code>null</code> if the output does not have one.
+     */
+    public static String parseCommittedRevision(final String output) {
+        final Matcher matcher = COMMITTED_REVISION.matcher(output);
+        String revision = null;
+        while (matcher.find()) {
+            revision = matcher.group(1);
+        }
+        return revision;
+    }
+
+    /**
+     * Parses the output of <code>svn list --xml</code>.
+     *
+     * @param output the XML output of <code>svn list --xml</code>.
+     * @return the {@link SvnListEntry}'s, in the order of the listing.
+     * @throws MojoExecutionException if the output is not a valid listing.
+     */
+    static List<SvnListEntry> parseListXml(final String output) throws MojoExecutionException {
+        final Document document;
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            final DocumentBuilder builder = factory.newDocumentBuilder();
+            document = builder.parse(new InputSource(new StringReader(output)));
+        } catch (final ParserConfigurationException | SAXException | IOException e) {
+            throw new MojoExecutionException("Unable to parse the svn listing: " + e.getMessage(), e);
+        }
+        final List<SvnListEntry> entries = new ArrayList<>();
+        final NodeList nodes = document.getElementsByTagName("entry");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            final Element entry = (Element) nodes.item(i);
+            final Element commit = (Element) entry.getElementsByTagName("commit").item(0);
+            final String name = getChildText(entry, "name");
+            final String size = getChildText(entry, "size");
+            if (name == null) {
+                throw new MojoExecutionException("Unable to parse the svn listing: entry without a name");
+            }
+            try {
+                entries.add(new SvnListEntry(name, "dir".equals(entry.getAttribute("kind")),
+                        size == null ? 0 : Long.parseLong(size),
+                        commit == null ? 0 : Long.parseLong(commit.getAttribute("revision")),
+                        commit == null ? Instant.EPOCH : Instant.parse(getChildText(commit, "date"))));
+            } catch (final NumberFormatException | DateTimeParseException | NullPointerException e) {
+                throw new MojoExecutionException("Unable to parse the svn listing of " + name + ": " + e, e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the text of the first child element with the given name.
+     *
+     * @param parent the parent {@link Element}.
+     * @param name the name of the child element.
+     * @return the trimmed text of the child, or <code>null</code> if there is no such child.
+     */
+    private static String getChildText(final Element parent, final String name) {
+        final NodeList children = parent.getElementsByTagName(name);
+        return children.getLength() == 0 ? null : children.item(0).getTextContent().trim();
+    }
+
+    /**
+     * Checks out the repository at the given depth. The checkout directory is created if it does not exist.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} to check out, with its credentials.
+     * @param checkoutDirectory the directory to check out into.
+     * @param depth the depth of the checkout, one of {@link #DEPTHS}.
+     * @throws MojoExecutionException if the checkout fails.
+     */
+    public static void checkOut(final Log log, final SvnScmProviderRepository repository,
+                                final File checkoutDirectory, final String depth) throws MojoExecutionException {
+        validateDepth(depth);
+        if (!checkoutDirectory.exists()) {
+            checkoutDirectory.mkdirs();
+        }
+        execute(log, createCheckOutCommandLine(repository, checkoutDirectory, depth),
+                "Failed to checkout files from SCM");
+    }
+
+    /**
+     * Sets the depth of a target in a working copy, fetching everything under it if the depth is deeper than
+     * before. A target that does not exist in the repository yet is skipped by Subversion.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} of the working copy, with its credentials.
+     * @param workingCopy the root of the working copy.
+     * @param depth the depth to set, one of {@link #DEPTHS}.
+     * @param target the path of the target, relative to the root of the working copy.
+     * @throws MojoExecutionException if the update fails.
+     */
+    public static void update(final Log log, final SvnScmProviderRepository repository, final File workingCopy,
+                              final String depth, final String target) throws MojoExecutionException {
+        validateDepth(depth);
+        execute(log, createUpdateCommandLine(repository, workingCopy, depth, target),
+                "Failed to update " + target + " from SCM");
+    }
+
+    /**
+     * Brings files into a sparse working copy, so that overwriting them modifies the versioned files rather than
+     * adding new ones. Targets that do not exist in the repository yet are skipped by Subversion.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} of the working copy, with its credentials.
+     * @param workingCopy the root of the working copy.
+     * @param targets the paths of the targets, relative to the root of the working copy.
+     * @throws MojoExecutionException if the update fails.
+     */
+    public static void updateFiles(final Log log, final SvnScmProviderRepository repository, final File workingCopy,
+                                   final List<String> targets) throws MojoExecutionException {
+        execute(log, createUpdateFilesCommandLine(repository, workingCopy, targets),
+                "Failed to update " + targets + " from SCM");
+    }
+
+    /**
+     * Imports the contents of the given directory into a new path of the repository in a single commit. This fails
+     * if the path already exists in the repository.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} to import into, with its credentials.
+     * @param directory the directory whose contents to import.
+     * @param path the path to import to, relative to the repository URL.
+     * @param message the commit message.
+     * @return the output of <code>svn import</code>, which ends with the committed revision.
+     * @throws MojoExecutionException if the import fails.
+     */
+    public static String importDirectory(final Log log, final SvnScmProviderRepository repository,
+                                         final File directory, final String path, final String message)
+            throws MojoExecutionException {
+        return execute(log, createImportCommandLine(repository, directory, path, message),
+                "Failed to import " + directory + " into " + repository.getUrl() + "/" + path);
+    }
+
+    /**
+     * Lists the children of the repository URL on the server, with their sizes, revisions and dates.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} to list, with its credentials.
+     * @param directory the directory to run the command in.
+     * @return the {@link SvnListEntry}'s directly under the repository URL.
+     * @throws MojoExecutionException if the listing fails.
+     */
+    public static List<SvnListEntry> list(final Log log, final SvnScmProviderRepository repository,
+                                          final File directory) throws MojoExecutionException {
+        return parseListXml(execute(log, createListCommandLine(repository, directory),
+                "Failed to list " + repository.getUrl()));
+    }
+
+    /**
+     * Lists everything under the repository URL on the server, with the sizes, revisions and dates of the entries.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} to list, with its credentials.
+     * @param directory the directory to run the command in.
+     * @return the {@link SvnListEntry}'s under the repository URL, at any depth.
+     * @throws MojoExecutionException if the listing fails.
+     */
+    public static List<SvnListEntry> listVerbose(final Log log, final SvnScmProviderRepository repository,
+                                                 final File directory) throws MojoExecutionException {
+        return parseListXml(execute(log, createVerboseListCommandLine(repository, directory),
+                "Failed to list " + repository.getUrl()));
+    }
+
+    /**
+     * Gets the content of a file of the repository from the server.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} that the file is in, with its credentials.
+     * @param directory the directory to run the command in.
+     * @param path the path of the file, relative to the repository URL.
+     * @return the content of the file.
+     * @throws MojoExecutionException if the file does not exist or cannot be read.
+     */
+    public static String cat(final Log log, final SvnScmProviderRepository repository, final File directory,
+                             final String path) throws MojoExecutionException {
+        return execute(log, createCatCommandLine(repository, directory, path),
+                "Failed to read " + path + " from " + repository.getUrl());
+    }
+
+    /**
+     * Gets the revision of the repository URL on the server.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} to query, with its credentials.
+     * @param directory the directory to run the command in.
+     * @return the revision.
+     * @throws MojoExecutionException if the query fails.
+     */
+    public static String getRevision(final Log log, final SvnScmProviderRepository repository,
+                                     final File directory) throws MojoExecutionException {
+        return execute(log, createInfoRevisionCommandLine(repository, directory),
+                "Failed to get the revision of " + repository.getUrl()).trim();
+    }
+
+    /**
+     * Deletes children of the repository URL in a single commit on the server, without downloading anything.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param repository the {@link SvnScmProviderRepository} to delete from, with its credentials.
+     * @param directory the directory to run the command in.
+     * @param children the names of the children to delete.
+     * @param message the commit message.
+     * @return the output of <code>svn delete</code>, which ends with the committed revision.
+     * @throws MojoExecutionException if the deletion fails.
+     */
+    public static String deleteChildren(final Log log, final SvnScmProviderRepository repository,
+                                        final File directory, final List<String> children, final String message)
+            throws MojoExecutionException {
+        final String baseUrl = StringUtils.removeEnd(repository.getUrl(), "/") + "/";
+        final List<String> urls = new ArrayList<>();
+        for (final String child : children) {
+            urls.add(baseUrl + child);
+        }
+        return execute(log, createDeleteUrlsCommandLine(repository, directory, urls, message),
+                "Failed to delete " + children + " from " + repository.getUrl());
+    }
+
+    /**
+     * Runs a Subversion command line, with {@link SharedFunctions#executeCommandLine(Commandline, String)}, and logs
+     * it without its password.
+     *
+     * @param log the {@link Log}, the maven logger.
+     * @param commandLine the {@link Commandline} to run.
+     * @param failureMessage the message of the exception thrown when the command fails.
+     * @return the standard output of the command.
+     * @throws MojoExecutionException if the command cannot be run or exits with an error.
+     */
+    public static String execute(final Log log, final Commandline commandLine, final String failureMessage)
+            throws MojoExecutionException {
+        if (log.isDebugEnabled()) {
+            log.debug("Executing: " + SvnCommandLineUtils.cryptPassword(commandLine));
+        }
+        return SharedFunctions.executeCommandLine(commandLine, failureMessage);
+    }
+}
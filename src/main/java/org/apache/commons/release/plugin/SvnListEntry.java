@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.time.Instant;
+
+/**
+ * An entry of a verbose, <code>svn list --xml</code>, listing of a repository URL.
+ *
+ * @since 1.8
+ */
+public final class SvnListEntry {
+
+    /** The path of the entry, relative to the listed URL. */
+    private final String name;
+
+    /** Whether the entry is a directory. */
+    private final boolean directory;
+
+    /** The size of the entry, which is zero for a directory. */
+    private final long size;
+
+    /** The revision in which the entry last changed. */
+    private final long revision;
+
+    /** The date at which the entry last changed. */
+    private final Instant date;
+
+    /**
+     * Creates an entry.
+     *
+     * @param name the path of the entry, relative to the listed URL, with <code>/</code> separators.
+     * @param directory whether the entry is a directory.
+     * @param size the size of the entry, which is zero for a directory.
+     * @param revision the revision in which the entry last changed.
+     * @param date the date at which the entry last changed.
+     */
+    public SvnListEntry(final String name, final boolean directory, final long size, final long revision,
+                        final Instant date) {
+        this.name = name;
+        this.directory = directory;
+        this.size = size;
+        this.revision = revision;
+        this.date = date;
+    }
+
+    /**
+     * Gets the path of the entry, relative to the listed URL.
+     *
+     * @return the path, with <code>/</code> separators.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tells whether the entry is a directory.
+     *
+     * @return <code>true</code> for a directory, <code>false</code> for a file.
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the size of the entry.
+     *
+     * @return the size of the file, or zero for a directory.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the revision in which the entry last changed.
+     *
+     * @return the revision.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the date at which the entry last changed.
+     *
+     * @return the date.
+     */
+    public Instant getDate() {
+        return date;
+    }
+
+    /**
+     * Tells whether the entry is a direct child of the listed URL, rather than an entry further down.
+     *
+     * @return <code>true</code> if the path of the entry has a single segment.
+     */
+    public boolean isTopLevel() {
+        return name.indexOf('/') < 0;
+    }
+
+    /**
+     * Tells whether the entry is, or is under, the given direct child of the listed URL.
+     *
+     * @param topLevelName the name of a direct child of the listed URL.
+     * @return <code>true</code> if this entry is that child or one of its descendants.
+     */
+    public boolean isUnder(final String topLevelName) {
+        return name.equals(topLevelName) || name.startsWith(topLevelName + "/");
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
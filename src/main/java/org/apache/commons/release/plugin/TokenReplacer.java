@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Replaces <code>@TOKEN@</code> tokens in text with their values, in a single pass over a {@link Reader}, the way the
+ * filter sets of Ant do. A token name is made of upper case letters, digits and underscores. A token that has no
+ * value, or text between two <code>@</code>'s that is not a token name, is copied as is.
+ *
+ * @since 1.8
+ */
+public final class TokenReplacer {
+
+    /** The character that starts and ends a token. */
+    private static final char TOKEN_DELIMITER = '@';
+
+    /** The values of the tokens, by token name. */
+    private final Map<String, String> values;
+
+    /** The length of the longest token name, which bounds the text that is held back while looking for a token. */
+    private final int maxNameLength;
+
+    /**
+     * Creates a replacer.
+     *
+     * @param values the values of the tokens, by token name without the <code>@</code>'s. A <code>null</code> value
+     *               leaves the token in place.
+     */
+    public TokenReplacer(final Map<String, String> values) {
+        this.values = values;
+        int max = 0;
+        for (final String name : values.keySet()) {
+            max = Math.max(max, name.length());
+        }
+        this.maxNameLength = max;
+    }
+
+    /**
+     * Copies the text from the <code>reader</code> to the <code>writer</code>, replacing the tokens. Neither of them
+     * is closed.
+     *
+     * @param reader the {@link Reader} of the text with tokens.
+     * @param writer the {@link Writer} of the text with the tokens replaced.
+     * @throws IOException if reading or writing fails.
+     */
+    public void replace(final Reader reader, final Writer writer) throws IOException {
+        final StringBuilder name = new StringBuilder();
+        boolean inToken = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (!inToken) {
+                if (c == TOKEN_DELIMITER) {
+                    inToken = true;
+                } else {
+                    writer.write(c);
+                }
+            } else if (c == TOKEN_DELIMITER) {
+                final String value = values.get(name.toString());
+                if (value != null) {
+                    writer.write(value);
+                    inToken = false;
+                } else {
+                    // the closing delimiter may open the next token, as in "user@host@TOKEN@"
+                    writer.write(TOKEN_DELIMITER);
+                    writer.write(name.toString());
+                }
+                name.setLength(0);
+            } else if (isNameCharacter(c) && name.length() < maxNameLength) {
+                name.append((char) c);
+            } else {
+                writer.write(TOKEN_DELIMITER);
+                writer.write(name.toString());
+                writer.write(c);
+                name.setLength(0);
+                inToken = false;
+            }
+        }
+        if (inToken) {
+            writer.write(TOKEN_DELIMITER);
+            writer.write(name.toString());
+        }
+    }
+
+    /**
+     * Tells whether a character can be part of a token name.
+     *
+     * @param c the character.
+     * @return <code>true</code> for an upper case letter, a digit or an underscore.
+     */
+    private static boolean isNameCharacter(final int c) {
+        return c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+/**
+ * The ways in which a detached artifact can be put in the working directory of the plugin.
+ *
+ * @since 1.8
+ */
+public enum TransferStrategy {
+
+    /**
+     * Copies the artifact, which leaves the original untouched but doubles the disk usage.
+     */
+    COPY,
+
+    /**
+     * Creates a hard link to the artifact, which only works within one file system.
+     */
+    HARDLINK,
+
+    /**
+     * Moves the artifact, which is safe once it has been detached from the project.
+     */
+    MOVE,
+
+    /**
+     * Tries {@link #HARDLINK}, then an atomic {@link #MOVE}, and falls back to {@link #COPY}.
+     */
+    AUTO;
+
+    /**
+     * Gets the {@link TransferStrategy} with the given name, ignoring case.
+     *
+     * @param name the name of the strategy, for example <code>hardlink</code>.
+     * @return the {@link TransferStrategy}.
+     * @throws IllegalArgumentException if there is no strategy with that name.
+     */
+    public static TransferStrategy fromName(final String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Puts the <code>fromFile</code> at <code>toFile</code> without copying its contents, if this strategy allows
+     * it. Copying is left to the caller, so that it can compute digests while doing so.
+     *
+     * @param fromFile the {@link File} to link or move.
+     * @param toFile the {@link File} to link or move to. An existing file is replaced.
+     * @return the strategy that was applied: {@link #HARDLINK} or {@link #MOVE} if the file is in place, or
+     *         {@link #COPY} if the caller still has to copy it.
+     * @throws IOException if an explicit {@link #HARDLINK} or {@link #MOVE} fails.
+     */
+    public TransferStrategy transferWithoutCopy(final File fromFile, final File toFile) throws IOException {
+        switch (this) {
+        case HARDLINK:
+            Files.deleteIfExists(toFile.toPath());
+            Files.createLink(toFile.toPath(), fromFile.toPath());
+            return HARDLINK;
+        case MOVE:
+            Files.move(fromFile.toPath(), toFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return MOVE;
+        case AUTO:
+            Files.deleteIfExists(toFile.toPath());
+            try {
+                Files.createLink(toFile.toPath(), fromFile.toPath());
+                return HARDLINK;
+            } catch (final IOException | UnsupportedOperationException e) {
+                // different file systems, or links are not supported: try the next best thing
+            }
+            try {
+                Files.move(fromFile.toPath(), toFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                return MOVE;
+            } catch (final IOException | UnsupportedOperationException e) {
+                return COPY;
+            }
+        default:
+            return COPY;
+        }
+    }
+}
@@ -17,21 +17,29 @@
 package org.apache.commons.release.plugin.mojos;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.properties.SortedProperties;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.release.plugin.DigestCache;
+import org.apache.commons.release.plugin.DigestMode;
 import org.apache.commons.release.plugin.SharedFunctions;
+import org.apache.commons.release.plugin.TransferStrategy;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -78,11 +86,16 @@ public class CommonsDistributionDetachmentMojo extends AbstractMojo {
     private final List<Artifact> detachedArtifacts = new ArrayList<>();
 
     /**
-     * A {@link SortedProperties} of {@link Artifact} → {@link String} containing the sha512 signatures
-     * for the individual artifacts, where the {@link Artifact} is represented as:
-     * <code>groupId:artifactId:version:type=sha512</code>.
+     * The digest algorithm that is always computed, as the vote and the staging rely on it.
      */
-    private final SortedProperties artifactSha512s = new SortedProperties();
+    private static final String SHA512 = "SHA-512";
+
+    /**
+     * A {@link Map} from digest algorithm to a {@link SortedProperties} of {@link Artifact} → {@link String}
+     * containing the digests for the individual artifacts, where the {@link Artifact} is represented as:
+     * <code>groupId:artifactId:version:type=digest</code>.
+     */
+    private final Map<String, SortedProperties> artifactDigests = new LinkedHashMap<>();
 
     /**
      * The maven project context injection so that we can get a hold of the variables at hand.
@@ -109,6 +122,82 @@ public class CommonsDistributionDetachmentMojo extends AbstractMojo {
     @Parameter(defaultValue = "false", property = "commons.release.isDistModule")
     private Boolean isDistModule;
 
+    /**
+     * The number of threads used to compute the digests of the attached artifacts. If this is not set, or set
+     * to a value less than one, the number of available processors is used.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.digestThreads")
+    private Integer digestThreads;
+
+    /**
+     * The {@link MessageDigest} algorithms, for example <code>SHA-256</code> and <code>SHA-512</code>, for which
+     * to create digest files for the detached artifacts and a properties file listing the digests of all the
+     * artifacts. All of the digests of an artifact are computed while reading it once. <code>SHA-512</code> is
+     * always computed, whether it is in this list or not.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.digestAlgorithms")
+    private List<String> digestAlgorithms;
+
+    /**
+     * Whether to keep the digests of the artifacts in the {@link #digestCacheFile}, so that re-running the
+     * build on unchanged artifacts does not have to hash them again.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "true", property = "commons.release.useDigestCache")
+    private Boolean useDigestCache;
+
+    /**
+     * The file in which the digests of the artifacts are cached, keyed by the canonical path, size, last
+     * modified time and file key of each artifact. Concurrent builds merge their entries into it under a file lock,
+     * and the entries of artifacts that no longer exist are dropped.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "${user.home}/.m2/commons-release-plugin/digest-cache.properties",
+            property = "commons.release.digestCacheFile")
+    private File digestCacheFile;
+
+    /**
+     * How the artifacts are read to compute their digests: <code>stream</code> reads them through a plain
+     * {@link java.io.InputStream}, <code>channel</code> through a {@link java.nio.channels.FileChannel} into a
+     * reusable direct buffer per thread, and <code>mmap</code> maps them into memory, which is the fastest for
+     * distributions of several gigabytes.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "channel", property = "commons.release.digestMode")
+    private String digestMode;
+
+    /**
+     * The {@link DigestMode} parsed from {@link #digestMode}.
+     */
+    private DigestMode selectedDigestMode = DigestMode.CHANNEL;
+
+    /**
+     * How the detached artifacts are put in the {@link #workingDirectory}: <code>copy</code> duplicates them,
+     * <code>hardlink</code> links them, <code>move</code> moves them, as they are no longer part of the project,
+     * and <code>auto</code> tries a hard link, then an atomic move, and only copies as a last resort.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "copy", property = "commons.release.transferStrategy")
+    private String transferStrategy;
+
+    /**
+     * The {@link TransferStrategy} parsed from {@link #transferStrategy}.
+     */
+    private TransferStrategy selectedTransferStrategy = TransferStrategy.COPY;
+
+    /**
+     * The {@link DigestCache} loaded from the {@link #digestCacheFile}, or <code>null</code> if it is not used.
+     */
+    private DigestCache digestCache;
+
     @Override
     public void execute() throws MojoExecutionException {
         if (!isDistModule) {
@@ -120,11 +209,14 @@ public class CommonsDistributionDetachmentMojo extends AbstractMojo {
             getLog().warn("commons.distSvnStagingUrl is not set, the commons-release-plugin will not run.");
             return;
         }
+        initArtifactDigests();
         getLog().info("Detaching Assemblies");
+        final List<Artifact> retainedArtifacts = new ArrayList<>();
         for (final Object attachedArtifact : project.getAttachedArtifacts()) {
-            putAttachedArtifactInSha512Map((Artifact) attachedArtifact);
             if (ARTIFACT_TYPES_TO_DETACH.contains(((Artifact) attachedArtifact).getType())) {
                 detachedArtifacts.add((Artifact) attachedArtifact);
+            } else {
+                retainedArtifacts.add((Artifact) attachedArtifact);
             }
         }
         if (detachedArtifacts.isEmpty()) {
@@ -137,25 +229,160 @@ public class CommonsDistributionDetachmentMojo extends AbstractMojo {
         if (!workingDirectory.exists()) {
             SharedFunctions.initDirectory(getLog(), workingDirectory);
         }
-        writeAllArtifactsInSha512PropertiesFile();
-        copyRemovedArtifactsToWorkingDirectory();
+        loadDigestCache();
+        hashAndCopyArtifacts(retainedArtifacts);
+        storeDigestCache();
+        writeAllArtifactsInDigestPropertiesFiles();
         getLog().info("");
         hashArtifacts();
     }
 
     /**
-     * Takes an attached artifact and puts the signature in the map.
+     * Sets up a {@link SortedProperties} in {@link #artifactDigests} for each of the {@link #digestAlgorithms},
+     * making sure that <code>SHA-512</code> is one of them, and selects the {@link DigestMode} and the
+     * {@link TransferStrategy}.
+     *
+     * @throws MojoExecutionException if one of the algorithms is not supported by the JVM, or the digest mode
+     *                                or the transfer strategy is unknown.
+     */
+    private void initArtifactDigests() throws MojoExecutionException {
+        if (StringUtils.isNotBlank(digestMode)) {
+            try {
+                selectedDigestMode = DigestMode.fromName(digestMode);
+            } catch (final IllegalArgumentException e) {
+                throw new MojoExecutionException("Unsupported digest mode: " + digestMode, e);
+            }
+        }
+        if (StringUtils.isNotBlank(transferStrategy)) {
+            try {
+                selectedTransferStrategy = TransferStrategy.fromName(transferStrategy);
+            } catch (final IllegalArgumentException e) {
+                throw new MojoExecutionException("Unsupported transfer strategy: " + transferStrategy, e);
+            }
+        }
+        artifactDigests.put(SHA512, new SortedProperties());
+        if (digestAlgorithms != null) {
+            for (final String digestAlgorithm : digestAlgorithms) {
+                final String algorithm = digestAlgorithm.trim().toUpperCase(Locale.ROOT);
+                if (!DigestUtils.isAvailable(algorithm)) {
+                    throw new MojoExecutionException("Unsupported digest algorithm: " + digestAlgorithm);
+                }
+                artifactDigests.putIfAbsent(algorithm, new SortedProperties());
+            }
+        }
+    }
+
+    /**
+     * Loads the {@link #digestCache} from the {@link #digestCacheFile}, if the cache is used.
+     *
+     * @throws MojoExecutionException if the cache file exists but cannot be read.
+     */
+    private void loadDigestCache() throws MojoExecutionException {
+        if (Boolean.TRUE.equals(useDigestCache) && digestCacheFile != null) {
+            try {
+                digestCache = DigestCache.load(digestCacheFile);
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Could not read digest cache: " + digestCacheFile, e);
+            }
+        }
+    }
+
+    /**
+     * Stores the {@link #digestCache} to the {@link #digestCacheFile}, if the cache is used, and logs how many
+     * artifacts did not need to be hashed.
+     *
+     * @throws MojoExecutionException if the cache file cannot be written.
+     */
+    private void storeDigestCache() throws MojoExecutionException {
+        if (digestCache != null) {
+            getLog().info("Digest cache " + digestCacheFile + ": " + digestCache.getHits() + " hits, "
+                    + digestCache.getMisses() + " misses");
+            try {
+                digestCache.store();
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Could not write digest cache: " + digestCacheFile, e);
+            }
+        }
+    }
+
+    /**
+     * Gets the cached digests of the given file for all of the algorithms in {@link #artifactDigests}.
+     *
+     * @param file the {@link File} to get the digests for.
+     * @return the hex encoded digests, or <code>null</code> if the cache is not used or does not have them.
+     * @throws IOException if the attributes of the file cannot be read.
+     */
+    private String[] getCachedDigests(final File file) throws IOException {
+        if (digestCache == null) {
+            return null;
+        }
+        return digestCache.get(file, new ArrayList<>(artifactDigests.keySet()));
+    }
+
+    /**
+     * Hex encodes the results of the given {@link MessageDigest}'s, and puts them in the {@link #digestCache}
+     * for the given file if the cache is used.
+     *
+     * @param file the {@link File} that the {@link MessageDigest}'s have been fed.
+     * @param messageDigests the {@link MessageDigest}'s as created by {@link #newMessageDigests()}.
+     * @return the hex encoded digests.
+     * @throws IOException if the attributes of the file cannot be read.
+     */
+    private String[] completeDigests(final File file, final MessageDigest[] messageDigests) throws IOException {
+        final String[] digests = new String[messageDigests.length];
+        for (int i = 0; i < digests.length; i++) {
+            digests[i] = Hex.encodeHexString(messageDigests[i].digest());
+        }
+        if (digestCache != null) {
+            digestCache.put(file, new ArrayList<>(artifactDigests.keySet()), digests);
+        }
+        return digests;
+    }
+
+    /**
+     * Creates a new {@link MessageDigest} for each of the algorithms in {@link #artifactDigests}, in the same
+     * order.
+     *
+     * @return the array of {@link MessageDigest}'s.
+     */
+    private MessageDigest[] newMessageDigests() {
+        final List<MessageDigest> messageDigests = new ArrayList<>();
+        for (final String algorithm : artifactDigests.keySet()) {
+            messageDigests.add(DigestUtils.getDigest(algorithm));
+        }
+        return messageDigests.toArray(new MessageDigest[0]);
+    }
+
+    /**
+     * Puts the hex encoded digests in the {@link #artifactDigests} for the given artifact key.
+     *
+     * @param artifactKey the key of the artifact, as given by {@link #getArtifactKey(Artifact)}.
+     * @param digests the hex encoded digests, in the order of the algorithms in {@link #artifactDigests}.
+     */
+    private void putDigests(final String artifactKey, final String[] digests) {
+        int i = 0;
+        for (final SortedProperties properties : artifactDigests.values()) {
+            properties.put(artifactKey, digests[i++]);
+        }
+    }
+
+    /**
+     * Takes an attached artifact and puts its digests in the maps.
      * @param artifact is a Maven {@link Artifact} taken from the project at start time of mojo.
-     * @throws MojoExecutionException if an {@link IOException} occurs when getting the sha512 of the
+     * @throws MojoExecutionException if an {@link IOException} occurs when getting the digests of the
      *                                artifact.
      */
-    private void putAttachedArtifactInSha512Map(final Artifact artifact) throws MojoExecutionException {
+    private void putAttachedArtifactInDigestMaps(final Artifact artifact) throws MojoExecutionException {
         try {
             final String artifactKey = getArtifactKey(artifact);
             if (!artifactKey.endsWith(".asc")) { // .asc files don't need hashes
-                try (FileInputStream fis = new FileInputStream(artifact.getFile())) {
-                    artifactSha512s.put(artifactKey, DigestUtils.sha512Hex(fis));
+                String[] digests = getCachedDigests(artifact.getFile());
+                if (digests == null) {
+                    final MessageDigest[] messageDigests = newMessageDigests();
+                    selectedDigestMode.digest(artifact.getFile(), messageDigests);
+                    digests = completeDigests(artifact.getFile(), messageDigests);
                 }
+                putDigests(artifactKey, digests);
             }
         } catch (final IOException e) {
             throw new MojoExecutionException(
@@ -172,46 +399,119 @@ public class CommonsDistributionDetachmentMojo extends AbstractMojo {
     }
 
     /**
-     * Writes to ./target/commons-release-plugin/sha512.properties the artifact sha512's.
+     * Writes to ./target/commons-release-plugin/&lt;algorithm&gt;.properties the artifact digests, for example
+     * <code>sha512.properties</code>.
      *
-     * @throws MojoExecutionException if we can't write the file due to an {@link IOException}.
+     * @throws MojoExecutionException if we can't write a file due to an {@link IOException}.
      */
-    private void writeAllArtifactsInSha512PropertiesFile() throws MojoExecutionException {
-        final File propertiesFile = new File(workingDirectory, "sha512.properties");
-        getLog().info("Writing " + propertiesFile);
-        try (FileOutputStream fileWriter = new FileOutputStream(propertiesFile)) {
-            artifactSha512s.store(fileWriter, "Release SHA-512s");
-        } catch (final IOException e) {
-            throw new MojoExecutionException("Failure to write SHA-512's", e);
+    private void writeAllArtifactsInDigestPropertiesFiles() throws MojoExecutionException {
+        for (final Map.Entry<String, SortedProperties> entry : artifactDigests.entrySet()) {
+            final File propertiesFile = new File(workingDirectory,
+                    SharedFunctions.getDigestFileExtension(entry.getKey()) + ".properties");
+            getLog().info("Writing " + propertiesFile);
+            try (FileOutputStream fileWriter = new FileOutputStream(propertiesFile)) {
+                entry.getValue().store(fileWriter, "Release " + entry.getKey() + "s");
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Failure to write " + entry.getKey() + "'s", e);
+            }
         }
     }
 
     /**
-     * A helper method to copy the newly detached artifacts to <code>target/commons-release-plugin</code>
-     * so that the {@link CommonsDistributionStagingMojo} can find the artifacts later.
+     * Hashes the artifacts that stay attached to the project, and copies the detached artifacts to the working
+     * directory, on a pool of {@link #digestThreads} threads. The resulting digests end up in the
+     * {@link SortedProperties}'s of {@link #artifactDigests}, so their order does not depend on the order in which
+     * the threads finish.
      *
+     * @param retainedArtifacts the {@link Artifact}'s that remain attached to the project.
+     * @throws MojoExecutionException if hashing or copying any one of the artifacts fails.
+     */
+    private void hashAndCopyArtifacts(final List<Artifact> retainedArtifacts) throws MojoExecutionException {
+        getLog().info("Copying " + detachedArtifacts.size() + " detached artifacts to working directory "
+                + workingDirectory.getAbsolutePath());
+        final ExecutorService executorService = SharedFunctions.newFixedThreadPool(digestThreads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (final Artifact artifact : retainedArtifacts) {
+                futures.add(executorService.submit(() -> {
+                    putAttachedArtifactInDigestMaps(artifact);
+                    return null;
+                }));
+            }
+            for (final Artifact artifact : detachedArtifacts) {
+                futures.add(executorService.submit(() -> {
+                    copyRemovedArtifactToWorkingDirectory(artifact);
+                    return null;
+                }));
+            }
+            SharedFunctions.awaitAll(futures);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * A helper method to put a newly detached artifact in <code>target/commons-release-plugin</code>
+     * so that the {@link CommonsDistributionStagingMojo} can find the artifact later, using the
+     * {@link #transferStrategy}. When the artifact is copied, its digests are computed from the same buffer that
+     * is used for the copy, so that every detached artifact is only read once. When it is linked or moved, the
+     * digests are computed from the file in the working directory. Either way they are put in the digest maps.
+     *
+     * @param artifact the detached {@link Artifact} to copy.
      * @throws MojoExecutionException if some form of an {@link IOException} occurs, we want it
      *                                properly wrapped so that Maven can handle it.
      */
-    private void copyRemovedArtifactsToWorkingDirectory() throws MojoExecutionException {
-        final String wdAbsolutePath = workingDirectory.getAbsolutePath();
-        getLog().info(
-                "Copying " + detachedArtifacts.size() + " detached artifacts to working directory " + wdAbsolutePath);
-        for (final Artifact artifact: detachedArtifacts) {
-            final File artifactFile = artifact.getFile();
-            final StringBuilder copiedArtifactAbsolutePath = new StringBuilder(wdAbsolutePath);
-            copiedArtifactAbsolutePath.append("/");
-            copiedArtifactAbsolutePath.append(artifactFile.getName());
-            final File copiedArtifact = new File(copiedArtifactAbsolutePath.toString());
-            getLog().info("Copying: " + artifactFile.getName());
-            SharedFunctions.copyFile(getLog(), artifactFile, copiedArtifact);
+    private void copyRemovedArtifactToWorkingDirectory(final Artifact artifact) throws MojoExecutionException {
+        final File artifactFile = artifact.getFile();
+        final StringBuilder copiedArtifactAbsolutePath = new StringBuilder(workingDirectory.getAbsolutePath());
+        copiedArtifactAbsolutePath.append("/");
+        copiedArtifactAbsolutePath.append(artifactFile.getName());
+        final File copiedArtifact = new File(copiedArtifactAbsolutePath.toString());
+        final TransferStrategy appliedTransferStrategy;
+        try {
+            appliedTransferStrategy = selectedTransferStrategy.transferWithoutCopy(artifactFile, copiedArtifact);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not " + selectedTransferStrategy.name().toLowerCase(Locale.ROOT)
+                    + " " + artifactFile + " to " + copiedArtifact, e);
+        }
+        getLog().info(StringUtils.capitalize(appliedTransferStrategy.name().toLowerCase(Locale.ROOT)) + ": "
+                + artifactFile.getName());
+        final String artifactKey = getArtifactKey(artifact);
+        if (artifactKey.endsWith(".asc")) { // .asc files don't need hashes
+            if (appliedTransferStrategy == TransferStrategy.COPY) {
+                SharedFunctions.copyFile(getLog(), artifactFile, copiedArtifact);
+            }
+            return;
+        }
+        final boolean copy = appliedTransferStrategy == TransferStrategy.COPY;
+        File digestedFile = copiedArtifact;
+        if (copy) {
+            digestedFile = artifactFile;
+        }
+        try {
+            String[] digests = getCachedDigests(digestedFile);
+            if (digests == null) {
+                final MessageDigest[] messageDigests = newMessageDigests();
+                if (copy) {
+                    SharedFunctions.copyFileAndDigest(getLog(), selectedDigestMode, artifactFile, copiedArtifact,
+                            messageDigests);
+                } else {
+                    selectedDigestMode.digest(copiedArtifact, messageDigests);
+                }
+                digests = completeDigests(digestedFile, messageDigests);
+            } else if (copy) {
+                SharedFunctions.copyFile(getLog(), artifactFile, copiedArtifact);
+            }
+            putDigests(artifactKey, digests);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not get the digests of: " + artifactFile.getName(), e);
         }
     }
 
     /**
-     *  A helper method that creates sha512 signature files for our detached artifacts in the
-     *  <code>target/commons-release-plugin</code> directory for the purpose of being uploaded by
-     *  the {@link CommonsDistributionStagingMojo}.
+     *  A helper method that creates digest files, for example <code>.sha512</code> files, for our detached
+     *  artifacts in the <code>target/commons-release-plugin</code> directory for the purpose of being uploaded
+     *  by the {@link CommonsDistributionStagingMojo}.
      *
      * @throws MojoExecutionException if some form of an {@link IOException} occurs, we want it
      *                                properly wrapped so that Maven can handle it.
@@ -220,39 +520,43 @@ public class CommonsDistributionDetachmentMojo extends AbstractMojo {
         for (final Artifact artifact : detachedArtifacts) {
             if (!artifact.getFile().getName().toLowerCase(Locale.ROOT).contains("asc")) {
                 final String artifactKey = getArtifactKey(artifact);
-                try {
-                    String digest;
-                    // SHA-512
-                    digest = artifactSha512s.getProperty(artifactKey.toString());
-                    getLog().info(artifact.getFile().getName() + " sha512: " + digest);
-                    try (PrintWriter printWriter = new PrintWriter(
-                            getSha512FilePath(workingDirectory, artifact.getFile()))) {
-                        printWriter.println(digest);
+                for (final Map.Entry<String, SortedProperties> entry : artifactDigests.entrySet()) {
+                    final String extension = SharedFunctions.getDigestFileExtension(entry.getKey());
+                    try {
+                        final String digest = entry.getValue().getProperty(artifactKey);
+                        getLog().info(artifact.getFile().getName() + " " + extension + ": " + digest);
+                        try (PrintWriter printWriter = new PrintWriter(
+                                getDigestFilePath(workingDirectory, artifact.getFile(), extension))) {
+                            printWriter.println(digest);
+                        }
+                    } catch (final IOException e) {
+                        throw new MojoExecutionException("Could not sign file: " + artifact.getFile().getName(), e);
                     }
-                } catch (final IOException e) {
-                    throw new MojoExecutionException("Could not sign file: " + artifact.getFile().getName(), e);
                 }
             }
         }
     }
 
     /**
-     * A helper method to create a file path for the <code>sha512</code> signature file from a given file.
+     * A helper method to create a file path for a digest file, for example a <code>.sha512</code> file, from a
+     * given file.
      *
-     * @param directory is the {@link File} for the directory in which to make the <code>.sha512</code> file.
-     * @param file the {@link File} whose name we should use to create the <code>.sha512</code> file.
-     * @return a {@link String} that is the absolute path to the <code>.sha512</code> file.
+     * @param directory is the {@link File} for the directory in which to make the digest file.
+     * @param file the {@link File} whose name we should use to create the digest file.
+     * @param extension the extension of the digest file, for example <code>sha512</code>.
+     * @return a {@link String} that is the absolute path to the digest file.
      */
-    private String getSha512FilePath(final File directory, final File file) {
+    private String getDigestFilePath(final File directory, final File file, final String extension) {
         final StringBuilder buffer = new StringBuilder(directory.getAbsolutePath());
         buffer.append("/");
         buffer.append(file.getName());
-        buffer.append(".sha512");
+        buffer.append(".");
+        buffer.append(extension);
         return buffer.toString();
     }
 
     /**
-     * Generates the unique artifact key for storage in our sha512 map. For example,
+     * Generates the unique artifact key for storage in our digest maps. For example,
      * commons-test-1.4-src.tar.gz should have it's name as the key.
      *
      * @param artifact the {@link Artifact} that we wish to generate a key for.
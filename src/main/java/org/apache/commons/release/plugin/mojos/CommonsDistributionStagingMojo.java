@@ -18,13 +18,16 @@ package org.apache.commons.release.plugin.mojos;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.release.plugin.ParallelFileCopier;
 import org.apache.commons.release.plugin.SharedFunctions;
+import org.apache.commons.release.plugin.SiteArchiveFormat;
+import org.apache.commons.release.plugin.SvnCommands;
+import org.apache.commons.release.plugin.SvnListEntry;
 import org.apache.commons.release.plugin.velocity.HeaderHtmlVelocityDelegate;
 import org.apache.commons.release.plugin.velocity.ReadmeHtmlVelocityDelegate;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
-import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -34,7 +37,6 @@ import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.command.add.AddScmResult;
 import org.apache.maven.scm.command.checkin.CheckInScmResult;
-import org.apache.maven.scm.command.checkout.CheckOutScmResult;
 import org.apache.maven.scm.manager.BasicScmManager;
 import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.provider.ScmProvider;
@@ -45,13 +47,15 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * This class checks out the dev distribution location, copies the distributions into that directory
@@ -73,6 +77,25 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
     private static final String HEADER_FILE_NAME = "HEADER.html";
     /** The name of the signature validation shell script to be checked into the dist svn repo. */
     private static final String SIGNATURE_VALIDATOR_FILE_NAME = "signature-validator.sh";
+    /**
+     * Matches the names of the properties files listing the digests of all the artifacts, like
+     * <code>sha512.properties</code>, that the {@link CommonsDistributionDetachmentMojo} writes.
+     */
+    private static final Pattern DIGEST_PROPERTIES_FILE_NAME = Pattern.compile("(sha|md)\\d*\\.properties");
+    /**
+     * The name of the file in the {@link #workingDirectory} that records the revision in which the distributions
+     * were committed, for the {@link CommonsVoteTxtMojo}.
+     */
+    static final String STAGED_REVISION_FILE_NAME = "staged-revision.txt";
+    /** The {@link #stagingMode} that commits from a checkout of the dist subversion repository. */
+    private static final String STAGING_MODE_CHECKOUT = "checkout";
+    /** The {@link #stagingMode} that imports the prepared files into the dist subversion repository. */
+    private static final String STAGING_MODE_IMPORT = "import";
+    /**
+     * The name of the directory in the {@link #workingDirectory} that the root files of the dist directory are
+     * checked out into in the <code>import</code> {@link #stagingMode}.
+     */
+    private static final String ROOT_CHECKOUT_DIRECTORY_NAME = "scm-root";
 
     /**
      * The {@link MavenProject} object is essentially the context of the maven build at
@@ -107,6 +130,66 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
             property = "commons.distCheckoutDirectory")
     private File distCheckoutDirectory;
 
+    /**
+     * The depth at which the dist subversion repository is checked out: <code>empty</code>, <code>files</code>,
+     * <code>immediates</code> or <code>infinity</code>. Unless this is <code>infinity</code>, only the
+     * <code>commonsReleaseVersion-commonsRcVersion</code> directory that we stage into is then fetched in full,
+     * so that other release candidates in the dev area are not downloaded.
+     *
+     * <p>The files that are staged at the root of the dist directory, like the site archive and its digest, are
+     * then fetched one by one before they are overwritten, so that they are committed as modifications of the
+     * versioned files rather than added again, which Subversion refuses.</p>
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "empty", property = "commons.distCheckoutDepth")
+    private String distCheckoutDepth;
+
+    /**
+     * How the distributions are committed to the dist subversion repository. With <code>checkout</code>, the
+     * repository is checked out into the {@link #distCheckoutDirectory}, and the distributions are added and
+     * committed from there. With <code>import</code>, the distributions are prepared in the
+     * {@link #distCheckoutDirectory} as a plain directory, and the release candidate directory is uploaded with
+     * an <code>svn import</code>, which needs no checkout and keeps no pristine copies of the distributions. An
+     * import cannot overwrite anything, so it fails early if the release candidate directory has been staged
+     * before. The files at the root of the dist directory, like the <code>RELEASE-NOTES.txt</code> and the site,
+     * are then committed in a second commit, from a checkout of only those files, since they are usually already
+     * there from an earlier release candidate.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = STAGING_MODE_CHECKOUT, property = "commons.release.stagingMode")
+    private String stagingMode;
+
+    /**
+     * The number of threads used to copy the distributions, the site, and the <code>README.html</code> and
+     * <code>HEADER.html</code> files into the {@link #distCheckoutDirectory}. If this is not set, or set to a value
+     * less than one, the number of available processors is used.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.copyThreads")
+    private Integer copyThreads;
+
+    /**
+     * The classpath location of a Velocity template that replaces the built-in <code>HEADER.vm</code>, for example
+     * one from a dependency of the plugin. If this is not set, the built-in template is used.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.headerTemplate")
+    private String headerTemplate;
+
+    /**
+     * The classpath location of a Velocity template that replaces the built-in <code>README.vm</code>, for example
+     * one from a dependency of the plugin. The template gets the <code>artifactId</code>, <code>version</code> and
+     * <code>siteUrl</code> variables. If this is not set, the built-in template is used.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.readmeTemplate")
+    private String readmeTemplate;
+
     /**
      * The location of the RELEASE-NOTES.txt file such that multi-module builds can configure it.
      */
@@ -185,6 +268,13 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
      */
     private File distVersionRcVersionDirectory;
 
+    /**
+     * The SHA-512 digests of the site archives that are already staged at the root of the dist directory, by
+     * name of their digest file, as read from the server in the {@link CommonsDistributionStagingMojo#execute()}
+     * method.
+     */
+    private final Map<String, String> stagedSiteDigests = new HashMap<>();
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         if (!isDistModule) {
@@ -200,6 +290,10 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
             getLog().info("Current project contains no distributions. Not executing.");
             return;
         }
+        if (!STAGING_MODE_CHECKOUT.equals(stagingMode) && !STAGING_MODE_IMPORT.equals(stagingMode)) {
+            throw new MojoExecutionException("Unsupported staging mode: " + stagingMode + ", expected "
+                    + STAGING_MODE_CHECKOUT + " or " + STAGING_MODE_IMPORT);
+        }
         getLog().info("Preparing to stage distributions");
         try {
             final ScmManager scmManager = new BasicScmManager();
@@ -218,48 +312,32 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
             );
             distVersionRcVersionDirectory =
                     new File(distCheckoutDirectory, commonsReleaseVersion + "-" + commonsRcVersion);
-            if (!distCheckoutDirectory.exists()) {
+            final boolean importMode = STAGING_MODE_IMPORT.equals(stagingMode);
+            if (importMode) {
                 SharedFunctions.initDirectory(getLog(), distCheckoutDirectory);
+            } else {
+                checkOutDist(providerRepository);
             }
-            final ScmFileSet scmFileSet = new ScmFileSet(distCheckoutDirectory);
-            getLog().info("Checking out dist from: " + distSvnStagingUrl);
-            final CheckOutScmResult checkOutResult = provider.checkOut(repository, scmFileSet);
-            if (!checkOutResult.isSuccess()) {
-                throw new MojoExecutionException("Failed to checkout files from SCM: "
-                        + checkOutResult.getProviderMessage() + " [" + checkOutResult.getCommandOutput() + "]");
+            readStagedSiteDigests(providerRepository);
+            if (!importMode && !SvnCommands.INFINITY.equals(distCheckoutDepth)) {
+                updateRootFiles(providerRepository);
             }
             final File copiedReleaseNotes = copyReleaseNotesToWorkingDirectory();
             copyDistributionsIntoScmDirectoryStructureAndAddToSvn(copiedReleaseNotes,
                     provider, repository);
+            if (importMode) {
+                importDist(provider, repository, providerRepository);
+                return;
+            }
             final List<File> filesToAdd = new ArrayList<>();
             listNotHiddenFilesAndDirectories(distCheckoutDirectory, filesToAdd);
             if (!dryRun) {
-                final ScmFileSet fileSet = new ScmFileSet(distCheckoutDirectory, filesToAdd);
-                final AddScmResult addResult = provider.add(
-                        repository,
-                        fileSet
-                );
-                if (!addResult.isSuccess()) {
-                    throw new MojoExecutionException("Failed to add files to SCM: " + addResult.getProviderMessage()
-                            + " [" + addResult.getCommandOutput() + "]");
-                }
-                getLog().info("Staging release: " + project.getArtifactId() + ", version: " + project.getVersion());
-                final CheckInScmResult checkInResult = provider.checkIn(
-                        repository,
-                        fileSet,
-                        "Staging release: " + project.getArtifactId() + ", version: " + project.getVersion()
-                );
-                if (!checkInResult.isSuccess()) {
-                    getLog().error("Committing dist files failed: " + checkInResult.getCommandOutput());
-                    throw new MojoExecutionException(
-                            "Committing dist files failed: " + checkInResult.getCommandOutput()
-                    );
-                }
-                getLog().info("Committed revision " + checkInResult.getScmRevision());
+                writeStagedRevision(commitDist(provider, repository, distCheckoutDirectory, filesToAdd));
             } else {
                 getLog().info("[Dry run] Would have committed to: " + distSvnStagingUrl);
                 getLog().info(
                         "[Dry run] Staging release: " + project.getArtifactId() + ", version: " + project.getVersion());
+                writeStagedRevision(null);
             }
         } catch (final ScmException e) {
             getLog().error("Could not commit files to dist: " + distSvnStagingUrl, e);
@@ -267,6 +345,188 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Checks out the dist subversion repository into the {@link #distCheckoutDirectory} at the
+     * {@link #distCheckoutDepth}, and then fetches the complete {@link #distVersionRcVersionDirectory}.
+     *
+     * @param providerRepository the {@link SvnScmProviderRepository} to check out, with its credentials.
+     * @throws MojoExecutionException if the checkout fails.
+     */
+    private void checkOutDist(final SvnScmProviderRepository providerRepository) throws MojoExecutionException {
+        if (!distCheckoutDirectory.exists()) {
+            SharedFunctions.initDirectory(getLog(), distCheckoutDirectory);
+        }
+        getLog().info("Checking out dist from: " + distSvnStagingUrl + " at depth " + distCheckoutDepth);
+        SvnCommands.checkOut(getLog(), providerRepository, distCheckoutDirectory, distCheckoutDepth);
+        if (!SvnCommands.INFINITY.equals(distCheckoutDepth)) {
+            getLog().info("Updating " + distVersionRcVersionDirectory.getName() + " at depth "
+                    + SvnCommands.INFINITY);
+            SvnCommands.update(getLog(), providerRepository, distCheckoutDirectory, SvnCommands.INFINITY,
+                    distVersionRcVersionDirectory.getName());
+        }
+    }
+
+    /**
+     * Adds the given files of a working copy of the dist subversion repository, and commits them.
+     *
+     * @param provider the {@link ScmProvider} to add and commit the files with.
+     * @param repository the {@link ScmRepository} of the dist directory.
+     * @param directory the root of the working copy.
+     * @param files the files and directories of the working copy to add and commit.
+     * @return the committed revision.
+     * @throws ScmException if the files cannot be added or committed.
+     * @throws MojoExecutionException if adding or committing the files fails.
+     */
+    private String commitDist(final ScmProvider provider, final ScmRepository repository, final File directory,
+                              final List<File> files) throws ScmException, MojoExecutionException {
+        final ScmFileSet fileSet = new ScmFileSet(directory, files);
+        final AddScmResult addResult = provider.add(
+                repository,
+                fileSet
+        );
+        if (!addResult.isSuccess()) {
+            throw new MojoExecutionException("Failed to add files to SCM: " + addResult.getProviderMessage()
+                    + " [" + addResult.getCommandOutput() + "]");
+        }
+        getLog().info("Staging release: " + project.getArtifactId() + ", version: " + project.getVersion());
+        final CheckInScmResult checkInResult = provider.checkIn(
+                repository,
+                fileSet,
+                "Staging release: " + project.getArtifactId() + ", version: " + project.getVersion()
+        );
+        if (!checkInResult.isSuccess()) {
+            getLog().error("Committing dist files failed: " + checkInResult.getCommandOutput());
+            throw new MojoExecutionException(
+                    "Committing dist files failed: " + checkInResult.getCommandOutput()
+            );
+        }
+        getLog().info("Committed revision " + checkInResult.getScmRevision());
+        return checkInResult.getScmRevision();
+    }
+
+    /**
+     * Imports the {@link #distVersionRcVersionDirectory} into the dist subversion repository, and then commits the
+     * other files of the {@link #distCheckoutDirectory} to the root of the dist directory with
+     * {@link #commitRootFiles(ScmProvider, ScmRepository, SvnScmProviderRepository, List, List)}, unless this is a
+     * dry run.
+     *
+     * @param provider the {@link ScmProvider} to commit the root files with.
+     * @param repository the {@link ScmRepository} of the dist directory.
+     * @param providerRepository the {@link SvnScmProviderRepository} to import into, with its credentials.
+     * @throws ScmException if the root files cannot be committed.
+     * @throws MojoExecutionException if the release candidate has already been staged, or the import or the
+     *                                commit fails.
+     */
+    private void importDist(final ScmProvider provider, final ScmRepository repository,
+                            final SvnScmProviderRepository providerRepository)
+            throws ScmException, MojoExecutionException {
+        final String message = "Staging release: " + project.getArtifactId() + ", version: " + project.getVersion();
+        final String rcDirectoryName = distVersionRcVersionDirectory.getName();
+        final List<File> rootFiles = new ArrayList<>();
+        for (final File file : distCheckoutDirectory.listFiles()) {
+            if (!file.getName().equals(rcDirectoryName) && !file.isHidden()) {
+                rootFiles.add(file);
+            }
+        }
+        if (dryRun) {
+            getLog().info("[Dry run] Would have imported " + distVersionRcVersionDirectory + " to: "
+                    + distSvnStagingUrl + "/" + rcDirectoryName);
+            if (!rootFiles.isEmpty()) {
+                getLog().info("[Dry run] Would have committed " + rootFiles + " to: " + distSvnStagingUrl);
+            }
+            getLog().info("[Dry run] " + message);
+            writeStagedRevision(null);
+            return;
+        }
+        final List<String> stagedNames = new ArrayList<>();
+        for (final SvnListEntry entry : SvnCommands.list(getLog(), providerRepository, workingDirectory)) {
+            stagedNames.add(entry.getName());
+        }
+        if (stagedNames.contains(rcDirectoryName)) {
+            throw new MojoExecutionException(rcDirectoryName + " has already been staged to " + distSvnStagingUrl
+                    + ", delete it or stage another release candidate");
+        }
+        getLog().info(message);
+        final String output = SvnCommands.importDirectory(getLog(), providerRepository,
+                distVersionRcVersionDirectory, rcDirectoryName, message);
+        // svn import lists every added file, and ends with the committed revision
+        final String trimmedOutput = output.trim();
+        getLog().info(trimmedOutput.substring(trimmedOutput.lastIndexOf('\n') + 1));
+        if (rootFiles.isEmpty()) {
+            writeStagedRevision(SvnCommands.parseCommittedRevision(output));
+        } else {
+            writeStagedRevision(commitRootFiles(provider, repository, providerRepository, rootFiles, stagedNames));
+        }
+    }
+
+    /**
+     * Commits files to the root of the dist directory, from an {@link SvnCommands#EMPTY} checkout into the
+     * {@link #ROOT_CHECKOUT_DIRECTORY_NAME} that only brings in those of them that are already staged, so that
+     * they are committed as modifications, which <code>svn import</code> cannot do.
+     *
+     * @param provider the {@link ScmProvider} to commit the files with.
+     * @param repository the {@link ScmRepository} of the dist directory.
+     * @param providerRepository the {@link SvnScmProviderRepository} to check out, with its credentials.
+     * @param rootFiles the files and directories of the {@link #distCheckoutDirectory} to commit.
+     * @param stagedNames the names of the children of the dist directory on the server.
+     * @return the committed revision.
+     * @throws ScmException if the files cannot be added or committed.
+     * @throws MojoExecutionException if the checkout, the copy or the commit fails.
+     */
+    private String commitRootFiles(final ScmProvider provider, final ScmRepository repository,
+                                   final SvnScmProviderRepository providerRepository, final List<File> rootFiles,
+                                   final List<String> stagedNames) throws ScmException, MojoExecutionException {
+        final File rootCheckout = new File(workingDirectory, ROOT_CHECKOUT_DIRECTORY_NAME);
+        SharedFunctions.initDirectory(getLog(), rootCheckout);
+        getLog().info("Checking out the root of dist from: " + distSvnStagingUrl);
+        SvnCommands.checkOut(getLog(), providerRepository, rootCheckout, SvnCommands.EMPTY);
+        final List<String> stagedRootNames = new ArrayList<>();
+        for (final File file : rootFiles) {
+            if (stagedNames.contains(file.getName())) {
+                stagedRootNames.add(file.getName());
+            }
+        }
+        if (!stagedRootNames.isEmpty()) {
+            getLog().info("Updating " + stagedRootNames + " at the root of the dist checkout");
+            SvnCommands.updateFiles(getLog(), providerRepository, rootCheckout, stagedRootNames);
+        }
+        try {
+            for (final File file : rootFiles) {
+                if (file.isDirectory()) {
+                    FileUtils.copyDirectory(file, new File(rootCheckout, file.getName()));
+                } else {
+                    FileUtils.copyFileToDirectory(file, rootCheckout);
+                }
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not copy " + rootFiles + " into " + rootCheckout, e);
+        }
+        final List<File> filesToAdd = new ArrayList<>();
+        listNotHiddenFilesAndDirectories(rootCheckout, filesToAdd);
+        return commitDist(provider, repository, rootCheckout, filesToAdd);
+    }
+
+    /**
+     * Records the revision in which the distributions were committed in the {@link #STAGED_REVISION_FILE_NAME}
+     * file, so that the {@link CommonsVoteTxtMojo} does not have to ask the server for it.
+     *
+     * @param revision the committed revision, or <code>null</code> if it is not known or nothing was committed,
+     *                 like in a dry run, in which case any previously recorded revision is deleted.
+     * @throws MojoExecutionException if the file cannot be written.
+     */
+    private void writeStagedRevision(final String revision) throws MojoExecutionException {
+        final File revisionFile = new File(workingDirectory, STAGED_REVISION_FILE_NAME);
+        try {
+            if (StringUtils.isEmpty(revision)) {
+                Files.deleteIfExists(revisionFile.toPath());
+            } else {
+                FileUtils.write(revisionFile, revision, StandardCharsets.UTF_8);
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not write " + revisionFile, e);
+        }
+    }
+
     /**
      * Lists all directories and files to a flat list.
      * @param directory {@link File} containing directory to list
@@ -345,31 +605,119 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
         final File scmSourceRoot = new File(distVersionRcVersionDirectory, "source");
         SharedFunctions.initDirectory(getLog(), scmBinariesRoot);
         SharedFunctions.initDirectory(getLog(), scmSourceRoot);
-        File copy;
-        for (final File file : workingDirectoryFiles) {
-            if (file.getName().contains("src")) {
-                copy = new File(scmSourceRoot,  file.getName());
-                SharedFunctions.copyFile(getLog(), file, copy);
-                filesForMavenScmFileSet.add(file);
-            } else if (file.getName().contains("bin")) {
-                copy = new File(scmBinariesRoot,  file.getName());
-                SharedFunctions.copyFile(getLog(), file, copy);
-                filesForMavenScmFileSet.add(file);
-            } else if (StringUtils.containsAny(file.getName(), "scm", "sha256.properties", "sha512.properties")) {
-                getLog().debug("Not copying scm directory over to the scm directory because it is the scm directory.");
-                //do nothing because we are copying into scm
-            } else {
-                copy = new File(distCheckoutDirectory.getAbsolutePath(),  file.getName());
-                SharedFunctions.copyFile(getLog(), file, copy);
-                filesForMavenScmFileSet.add(file);
+        try (ParallelFileCopier copier = new ParallelFileCopier(getLog(), copyThreads)) {
+            for (final File file : workingDirectoryFiles) {
+                if (file.getName().contains("src")) {
+                    copier.copyFile(file, new File(scmSourceRoot, file.getName()));
+                    filesForMavenScmFileSet.add(file);
+                } else if (file.getName().contains("bin")) {
+                    copier.copyFile(file, new File(scmBinariesRoot, file.getName()));
+                    filesForMavenScmFileSet.add(file);
+                } else if (isNotStaged(file)) {
+                    getLog().debug("Not copying scm directory over to the scm directory because it is the scm "
+                            + "directory.");
+                    //do nothing because we are copying into scm
+                } else if (isSiteArchiveAlreadyStaged(file)) {
+                    getLog().info("Not staging " + file.getName() + " because the same site archive is already "
+                            + "staged.");
+                } else {
+                    copier.copyFile(file, new File(distCheckoutDirectory.getAbsolutePath(), file.getName()));
+                    filesForMavenScmFileSet.add(file);
+                }
             }
+            filesForMavenScmFileSet.addAll(buildReadmeAndHeaderHtmlFiles(copier));
+            filesForMavenScmFileSet.addAll(copySignatureValidatorScriptToScmDirectory());
+            filesForMavenScmFileSet.addAll(copySiteToScmDirectory(copier));
+            copier.await();
         }
-        filesForMavenScmFileSet.addAll(buildReadmeAndHeaderHtmlFiles());
-        filesForMavenScmFileSet.addAll(copySignatureValidatorScriptToScmDirectory());
-        filesForMavenScmFileSet.addAll(copySiteToScmDirectory());
         return filesForMavenScmFileSet;
     }
 
+    /**
+     * Tells whether a file of the {@link #workingDirectory} is only used by the plugin, and is not staged.
+     *
+     * @param file a {@link File} in the {@link #workingDirectory}.
+     * @return <code>true</code> if the file is the scm directory, a digest properties file or the staged revision.
+     */
+    private boolean isNotStaged(final File file) {
+        return StringUtils.contains(file.getName(), "scm")
+                || DIGEST_PROPERTIES_FILE_NAME.matcher(file.getName()).matches()
+                || STAGED_REVISION_FILE_NAME.equals(file.getName());
+    }
+
+    /**
+     * Fetches the files that are about to be staged at the root of a sparse dist checkout, which the checkout at
+     * the {@link #distCheckoutDepth} did not bring in, so that they are committed as modifications rather than
+     * added again.
+     *
+     * @param providerRepository the {@link SvnScmProviderRepository} of the dist directory, with its credentials.
+     * @throws MojoExecutionException if the files of the {@link #workingDirectory} cannot be checked, or the update
+     *                                fails.
+     */
+    private void updateRootFiles(final SvnScmProviderRepository providerRepository) throws MojoExecutionException {
+        final List<String> rootFileNames = new ArrayList<>();
+        for (final File file : workingDirectory.listFiles()) {
+            if (!file.getName().contains("src") && !file.getName().contains("bin") && !isNotStaged(file)
+                    && !isSiteArchiveAlreadyStaged(file)) {
+                rootFileNames.add(file.getName());
+            }
+        }
+        if (!rootFileNames.isEmpty()) {
+            getLog().info("Updating " + rootFileNames + " at the root of the dist checkout");
+            SvnCommands.updateFiles(getLog(), providerRepository, distCheckoutDirectory, rootFileNames);
+        }
+    }
+
+    /**
+     * Reads the <code>.sha512</code> files of the site archives that are staged at the root of the dist directory
+     * from the server into the {@link #stagedSiteDigests}, for the site archives that this build wrote a digest
+     * for. They are read with <code>svn cat</code>, so this works whatever the {@link #distCheckoutDepth}, and in
+     * the <code>import</code> {@link #stagingMode}, which has no working copy.
+     *
+     * @param providerRepository the {@link SvnScmProviderRepository} of the dist directory, with its credentials.
+     */
+    private void readStagedSiteDigests(final SvnScmProviderRepository providerRepository) {
+        stagedSiteDigests.clear();
+        for (final SiteArchiveFormat format : SiteArchiveFormat.values()) {
+            if (new File(workingDirectory, format.getDigestFileName()).isFile()) {
+                try {
+                    stagedSiteDigests.put(format.getDigestFileName(), SvnCommands.cat(getLog(), providerRepository,
+                            workingDirectory, format.getDigestFileName()).trim());
+                } catch (final MojoExecutionException e) {
+                    getLog().debug("No staged " + format.getDigestFileName() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether a file is a reproducible site archive, or its digest, that is already staged. A
+     * reproducible site archive written by {@link CommonsSiteCompressionMojo} comes with a <code>.sha512</code>
+     * file, and if the staged copy of that file has the same digest, the archive does not need to be uploaded
+     * again.
+     *
+     * @param file a {@link File} in the {@link #workingDirectory}.
+     * @return <code>true</code> if the file is a site archive or its digest, and the same archive is staged.
+     * @throws MojoExecutionException if the digest file cannot be read.
+     */
+    private boolean isSiteArchiveAlreadyStaged(final File file) throws MojoExecutionException {
+        for (final SiteArchiveFormat format : SiteArchiveFormat.values()) {
+            if (file.getName().equals(format.getFileName()) || file.getName().equals(format.getDigestFileName())) {
+                final String stagedDigest = stagedSiteDigests.get(format.getDigestFileName());
+                if (stagedDigest == null) {
+                    return false;
+                }
+                final File digestFile = new File(workingDirectory, format.getDigestFileName());
+                try {
+                    return FileUtils.readFileToString(digestFile, StandardCharsets.UTF_8).trim().equals(stagedDigest);
+                } catch (final IOException e) {
+                    throw new MojoExecutionException("Could not read " + digestFile, e);
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Copies our <code>signature-validator.sh</code> into
      * <code>${basedir}/target/commons-release-plugin/scm/signature-validator.sh</code>.
@@ -394,11 +742,12 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
     /**
      * Copies <code>${basedir}/target/site</code> to <code>${basedir}/target/commons-release-plugin/scm/site</code>.
      *
+     * @param copier the {@link ParallelFileCopier} that copies the files of the site.
      * @return the {@link List} of {@link File}'s contained in
-     *         <code>${basedir}/target/commons-release-plugin/scm/site</code>, after the copy is complete.
+     *         <code>${basedir}/target/commons-release-plugin/scm/site</code>, once the copier is done.
      * @throws MojoExecutionException if the site copying fails for some reason.
      */
-    private List<File> copySiteToScmDirectory() throws MojoExecutionException {
+    private List<File> copySiteToScmDirectory(final ParallelFileCopier copier) throws MojoExecutionException {
         if (!siteDirectory.exists()) {
             getLog().error("\"mvn site\" was not run before this goal, or a siteDirectory did not exist.");
             throw new MojoExecutionException(
@@ -406,12 +755,7 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
             );
         }
         final File siteInScm = new File(distVersionRcVersionDirectory, "site");
-        try {
-            FileUtils.copyDirectory(siteDirectory, siteInScm);
-        } catch (final IOException e) {
-            throw new MojoExecutionException("Site copying failed", e);
-        }
-        return new ArrayList<>(FileUtils.listFiles(siteInScm, null, true));
+        return copier.copyDirectory(siteDirectory, siteInScm);
     }
 
     /**
@@ -419,87 +763,52 @@ public class CommonsDistributionStagingMojo extends AbstractMojo {
      * <ul>
      *     <li>distRoot
      *     <ul>
-     *         <li>binaries/HEADER.html (symlink)</li>
-     *         <li>binaries/README.html (symlink)</li>
-     *         <li>source/HEADER.html (symlink)</li>
-     *         <li>source/README.html (symlink)</li>
+     *         <li>binaries/HEADER.html</li>
+     *         <li>binaries/README.html</li>
+     *         <li>source/HEADER.html</li>
+     *         <li>source/README.html</li>
      *         <li>HEADER.html</li>
      *         <li>README.html</li>
      *     </ul>
      *     </li>
      * </ul>
-     * @return the {@link List} of created files above
-     * @throws MojoExecutionException if an {@link IOException} occurs in the creation of these
-     *                                files fails.
+     * Each template is rendered once, and the result is written to all of its files concurrently.
+     *
+     * @param copier the {@link ParallelFileCopier} that writes the files.
+     * @return the {@link List} of created files above, once the copier is done.
      */
-    private List<File> buildReadmeAndHeaderHtmlFiles() throws MojoExecutionException {
+    private List<File> buildReadmeAndHeaderHtmlFiles(final ParallelFileCopier copier) {
+        final List<File> directories = Arrays.asList(distVersionRcVersionDirectory,
+                new File(distVersionRcVersionDirectory, "source"),
+                new File(distVersionRcVersionDirectory, "binaries"));
         final List<File> headerAndReadmeFiles = new ArrayList<>();
-        final File headerFile = new File(distVersionRcVersionDirectory, HEADER_FILE_NAME);
-        //
-        // HEADER file
-        //
-        try (Writer headerWriter = new OutputStreamWriter(new FileOutputStream(headerFile), "UTF-8")) {
-            HeaderHtmlVelocityDelegate.builder().build().render(headerWriter);
-        } catch (final IOException e) {
-            final String message = "Could not build HEADER html file " + headerFile;
-            getLog().error(message, e);
-            throw new MojoExecutionException(message, e);
-        }
-        headerAndReadmeFiles.add(headerFile);
-        //
-        // README file
-        //
-        final File readmeFile = new File(distVersionRcVersionDirectory, README_FILE_NAME);
-        try (Writer readmeWriter = new OutputStreamWriter(new FileOutputStream(readmeFile), "UTF-8")) {
-            // @formatter:off
-            final ReadmeHtmlVelocityDelegate readmeHtmlVelocityDelegate = ReadmeHtmlVelocityDelegate.builder()
-                    .withArtifactId(project.getArtifactId())
-                    .withVersion(project.getVersion())
-                    .withSiteUrl(project.getUrl())
-                    .build();
-            // @formatter:on
-            readmeHtmlVelocityDelegate.render(readmeWriter);
-        } catch (final IOException e) {
-            final String message = "Could not build README html file " + readmeFile;
-            getLog().error(message, e);
-            throw new MojoExecutionException(message, e);
-        }
-        headerAndReadmeFiles.add(readmeFile);
-        //
-        // signature-validator.sh file copy
-        //
-        headerAndReadmeFiles.addAll(copyHeaderAndReadmeToSubdirectories(headerFile, readmeFile));
+        headerAndReadmeFiles.addAll(HeaderHtmlVelocityDelegate.builder().withTemplate(headerTemplate).build()
+                .render(copier, filesIn(directories, HEADER_FILE_NAME)));
+        // @formatter:off
+        final ReadmeHtmlVelocityDelegate readmeHtmlVelocityDelegate = ReadmeHtmlVelocityDelegate.builder()
+                .withArtifactId(project.getArtifactId())
+                .withVersion(project.getVersion())
+                .withSiteUrl(project.getUrl())
+                .withTemplate(readmeTemplate)
+                .build();
+        // @formatter:on
+        headerAndReadmeFiles.addAll(readmeHtmlVelocityDelegate.render(copier, filesIn(directories, README_FILE_NAME)));
         return headerAndReadmeFiles;
     }
 
     /**
-     * Copies <code>README.html</code> and <code>HEADER.html</code> to the source and binaries
-     * directories.
+     * Gets the files with the given name in each of the given directories.
      *
-     * @param headerFile The originally created <code>HEADER.html</code> file.
-     * @param readmeFile The originally created <code>README.html</code> file.
-     * @return a {@link List} of created files.
-     * @throws MojoExecutionException if the {@link SharedFunctions#copyFile(Log, File, File)}
-     *                                fails.
+     * @param directories the directories.
+     * @param fileName the name of the files.
+     * @return a {@link List} with a {@link File} per directory.
      */
-    private List<File> copyHeaderAndReadmeToSubdirectories(final File headerFile, final File readmeFile)
-            throws MojoExecutionException {
-        final List<File> symbolicLinkFiles = new ArrayList<>();
-        final File sourceRoot = new File(distVersionRcVersionDirectory, "source");
-        final File binariesRoot = new File(distVersionRcVersionDirectory, "binaries");
-        final File sourceHeaderFile = new File(sourceRoot, HEADER_FILE_NAME);
-        final File sourceReadmeFile = new File(sourceRoot, README_FILE_NAME);
-        final File binariesHeaderFile = new File(binariesRoot, HEADER_FILE_NAME);
-        final File binariesReadmeFile = new File(binariesRoot, README_FILE_NAME);
-        SharedFunctions.copyFile(getLog(), headerFile, sourceHeaderFile);
-        symbolicLinkFiles.add(sourceHeaderFile);
-        SharedFunctions.copyFile(getLog(), readmeFile, sourceReadmeFile);
-        symbolicLinkFiles.add(sourceReadmeFile);
-        SharedFunctions.copyFile(getLog(), headerFile, binariesHeaderFile);
-        symbolicLinkFiles.add(binariesHeaderFile);
-        SharedFunctions.copyFile(getLog(), readmeFile, binariesReadmeFile);
-        symbolicLinkFiles.add(binariesReadmeFile);
-        return symbolicLinkFiles;
+    private static List<File> filesIn(final List<File> directories, final String fileName) {
+        final List<File> files = new ArrayList<>();
+        for (final File directory : directories) {
+            files.add(new File(directory, fileName));
+        }
+        return files;
     }
 
     /**
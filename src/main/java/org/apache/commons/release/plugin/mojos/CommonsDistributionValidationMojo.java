@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.mojos;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.release.plugin.DistributionValidator;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Validates the artifacts of a release candidate in the Nexus staging repository against their checksums and
+ * against the distributions that the {@link CommonsDistributionStagingMojo} staged in the dist checkout, with a
+ * {@link DistributionValidator}. In the <code>checksum</code> {@link #validationMode}, only the remote checksums
+ * are fetched and compared with the digests that the {@link CommonsDistributionDetachmentMojo} recorded, and an
+ * artifact is downloaded only if its checksum does not match.
+ *
+ * @since 1.8
+ */
+@Mojo(name = "validate-distributions",
+        threadSafe = true,
+        aggregator = true)
+public class CommonsDistributionValidationMojo extends AbstractMojo {
+
+    /** The url of the Nexus staging repositories of Apache Commons. */
+    private static final String NEXUS_REPOSITORIES_URL =
+            "https://repository.apache.org/content/repositories/orgapachecommons-";
+
+    /** The validation mode that downloads every artifact. */
+    private static final String VALIDATION_MODE_DOWNLOAD = "download";
+
+    /** The validation mode that only fetches the checksums of the artifacts. */
+    private static final String VALIDATION_MODE_CHECKSUM = "checksum";
+
+    /**
+     * The {@link MavenProject} object is essentially the context of the maven build at
+     * a given time.
+     */
+    @Parameter(defaultValue = "${project}", required = true)
+    private MavenProject project;
+
+    /**
+     * The url of the directory of the release candidate in the staging repository. Defaults to the directory of the
+     * project and {@link #commonsReleaseVersion} in the Nexus repository of the {@link #nexusRepoId}.
+     */
+    @Parameter(property = "commons.distValidationUrl")
+    private String repositoryUrl;
+
+    /**
+     * The Nexus repository ID on https://repository.apache.org/, usually a four digit number. This is the value
+     * after https://repository.apache.org/content/repositories/orgapachecommons-
+     */
+    @Parameter(property = "commons.nexus.repo.id")
+    private String nexusRepoId;
+
+    /**
+     * The main working directory for the plugin, namely <code>target/commons-release-plugin</code>, where the
+     * <code>sha512.properties</code> of the artifacts are.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/commons-release-plugin", property = "commons.outputDirectory")
+    private File workingDirectory;
+
+    /** The location of the dist checkout that the release candidate was staged in. */
+    @Parameter(defaultValue = "${project.build.directory}/commons-release-plugin/scm",
+            property = "commons.distCheckoutDirectory")
+    private File distCheckoutDirectory;
+
+    /** The release version of the artifact to be built. */
+    @Parameter(property = "commons.release.version")
+    private String commonsReleaseVersion;
+
+    /** The RC version of the release. For example the first voted on candidate would be "RC1". */
+    @Parameter(property = "commons.rc.version")
+    private String commonsRcVersion;
+
+    /**
+     * The number of files that are downloaded or hashed at once. Defaults to the number of processors available to
+     * the JVM.
+     */
+    @Parameter(property = "commons.release.validationThreads")
+    private Integer validationThreads;
+
+    /**
+     * How the artifacts are validated: <code>download</code> downloads every artifact, and compares it with its
+     * checksum files and the staged distributions; <code>checksum</code> only fetches the checksum files, or the
+     * checksum headers, of the artifacts and compares them with the <code>sha512.properties</code> in the
+     * {@link #workingDirectory}, which transfers kilobytes rather than the whole release candidate.
+     */
+    @Parameter(defaultValue = VALIDATION_MODE_DOWNLOAD, property = "commons.release.validationMode")
+    private String validationMode;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!VALIDATION_MODE_DOWNLOAD.equals(validationMode) && !VALIDATION_MODE_CHECKSUM.equals(validationMode)) {
+            throw new MojoExecutionException("Unsupported validation mode: " + validationMode + ", expected "
+                    + VALIDATION_MODE_DOWNLOAD + " or " + VALIDATION_MODE_CHECKSUM);
+        }
+        final String url = getRepositoryUrl();
+        getLog().info("Validating the distributions in " + url);
+        final List<String> problems;
+        try (DistributionValidator validator = new DistributionValidator(getLog(), validationThreads)) {
+            if (VALIDATION_MODE_CHECKSUM.equals(validationMode)) {
+                problems = validator.validateChecksums(url, workingDirectory);
+            } else {
+                problems = validator.validate(url, getDistDirectory());
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new MojoFailureException("The validation of " + url + " found " + problems.size()
+                    + " problems, the first one being: " + problems.get(0));
+        }
+    }
+
+    /**
+     * Gets the directory of the release candidate in the dist checkout.
+     *
+     * @return the directory, or <code>null</code> if it does not exist.
+     */
+    private File getDistDirectory() {
+        final File distDirectory = new File(distCheckoutDirectory, commonsReleaseVersion + "-" + commonsRcVersion);
+        if (!distDirectory.isDirectory()) {
+            getLog().warn(distDirectory + " does not exist, only validating the checksums in the repository.");
+            return null;
+        }
+        return distDirectory;
+    }
+
+    /**
+     * Gets the url of the directory of the release candidate in the staging repository.
+     *
+     * @return the {@link #repositoryUrl}, or the directory of the project in the repository of the
+     *         {@link #nexusRepoId}.
+     * @throws MojoExecutionException if neither is set.
+     */
+    private String getRepositoryUrl() throws MojoExecutionException {
+        if (StringUtils.isNotEmpty(repositoryUrl)) {
+            return repositoryUrl;
+        }
+        if (StringUtils.isEmpty(nexusRepoId)) {
+            throw new MojoExecutionException("Must specify the property commons.distValidationUrl or "
+                    + "commons.nexus.repo.id");
+        }
+        return NEXUS_REPOSITORIES_URL + nexusRepoId + "/" + StringUtils.replaceChars(project.getGroupId(), '.', '/')
+                + "/" + project.getArtifactId() + "/" + commonsReleaseVersion + "/";
+    }
+}
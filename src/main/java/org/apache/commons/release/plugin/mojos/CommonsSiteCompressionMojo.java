@@ -17,16 +17,45 @@
 package org.apache.commons.release.plugin.mojos;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.release.plugin.CompressionPreset;
+import org.apache.commons.release.plugin.DigestMode;
+import org.apache.commons.release.plugin.ParallelZipCreator;
+import org.apache.commons.release.plugin.ReusableZipEntries;
+import org.apache.commons.release.plugin.SiteArchiveFormat;
+import org.apache.commons.release.plugin.StoredEntryRules;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -36,7 +65,8 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 /**
  * Takes the built <code>./target/site</code> directory and compresses it to
- * <code>./target/commons-release-plugin/site.zip</code>.
+ * <code>./target/commons-release-plugin/site.zip</code>, or to a <code>site.tar.gz</code> or
+ * <code>site.tar.xz</code>, see {@link #siteArchiveFormat}.
  *
  * @author chtompki
  * @since 1.0
@@ -50,6 +80,21 @@ import org.apache.maven.plugins.annotations.Parameter;
         aggregator = true)
 public class CommonsSiteCompressionMojo extends AbstractMojo {
 
+    /** The number of percent in a whole, for logging the compression ratio. */
+    private static final double PERCENT = 100;
+
+    /**
+     * The modification time of the entries of a reproducible archive when no {@link #outputTimestamp} is set,
+     * which is the first time that a zip file can hold, on an even second as zip times are in two second steps.
+     */
+    private static final String DEFAULT_OUTPUT_TIMESTAMP = "1980-01-01T00:00:02Z";
+
+    /** The default of the {@link #compressionMemoryLimit}, in megabytes. */
+    private static final int DEFAULT_COMPRESSION_MEMORY_LIMIT = 256;
+
+    /** The number of bytes in a megabyte. */
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
     /**
      * The working directory for the plugin which, assuming the maven uses the default
      * <code>${project.build.directory}</code>, this becomes <code>target/commons-release-plugin</code>.
@@ -79,9 +124,163 @@ public class CommonsSiteCompressionMojo extends AbstractMojo {
     private Boolean isDistModule;
 
     /**
-     * The list of files to compress into the site.zip file.
+     * The number of threads that deflate the files of the site in parallel, before they are merged into the
+     * <code>site.zip</code>. If this is not set, or set to a value less than one, the number of available
+     * processors is used. Setting it to one writes the zip file sequentially.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.compressionThreads")
+    private Integer compressionThreads;
+
+    /**
+     * The extensions, without the leading dot, of the files that are <code>STORED</code> in the
+     * <code>site.zip</code> instead of deflated, because they are compressed already. If this is not set, images,
+     * fonts and archives are stored, see {@link StoredEntryRules#DEFAULT_EXTENSIONS}.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.storedExtensions")
+    private List<String> storedExtensions;
+
+    /**
+     * Whether to also store the files, whatever their extension, for which deflating a sample from the start of
+     * the file hardly saves anything.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "true", property = "commons.release.probeCompressibility")
+    private Boolean probeCompressibility;
+
+    /**
+     * The named combination of deflate level and strategy used for the <code>site.zip</code>:
+     * <code>fastest</code>, which suits snapshot and dry run builds, <code>balanced</code>, or
+     * <code>smallest</code>, which gives the smallest upload for a release candidate.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "balanced", property = "commons.release.compressionPreset")
+    private String compressionPreset;
+
+    /**
+     * The deflate level, from 0 to 9, overriding the level of the {@link #compressionPreset}.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.compressionLevel")
+    private Integer compressionLevel;
+
+    /**
+     * The deflate strategy, <code>default</code>, <code>filtered</code> or <code>huffman</code>, overriding the
+     * strategy of the {@link #compressionPreset}.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.release.compressionStrategy")
+    private String compressionStrategy;
+
+    /**
+     * Whether to update an existing <code>site.zip</code> rather than write it from scratch: the entries of the
+     * files that did not change since the previous run are copied still compressed, and only the new or changed
+     * files are deflated. This speeds up the rebuilds of the site between release candidates.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "false", property = "commons.release.incrementalSiteZip")
+    private Boolean incrementalSiteZip;
+
+    /**
+     * The format of the site archive: <code>zip</code>, which writes the <code>site.zip</code>, or
+     * <code>tar.gz</code> or <code>tar.xz</code>, which write a <code>site.tar.gz</code> or <code>site.tar.xz</code>
+     * that is compressed in independent blocks on {@link #compressionThreads} threads. The tar formats use the
+     * level of the {@link #compressionPreset}, but not its strategy, and are never built incrementally.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "zip", property = "commons.release.siteArchiveFormat")
+    private String siteArchiveFormat;
+
+    /**
+     * Whether to write a reproducible site archive, which is the same byte for byte for the same site: the
+     * entries are sorted by name, have the {@link #outputTimestamp} as their modification time, and have no
+     * owner and the same permissions. A <code>.sha512</code> digest is written next to the archive, which lets
+     * {@link CommonsDistributionStagingMojo} skip uploading an archive that is already staged.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "false", property = "commons.release.reproducibleSite")
+    private Boolean reproducibleSite;
+
+    /**
+     * The modification time of the entries of a reproducible site archive, as an ISO 8601 date and time with an
+     * offset, like <code>2021-01-01T00:00:00Z</code>, or as a number of seconds since the epoch. This is the same
+     * property as the Maven archivers use for reproducible builds.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "${project.build.outputTimestamp}")
+    private String outputTimestamp;
+
+    /**
+     * The modification time of the entries of a reproducible site archive, in milliseconds since the epoch, or
+     * a negative value if the archive is not reproducible.
      */
-    private List<File> filesToCompress;
+    private long entryTime;
+
+    /**
+     * When the <code>site.zip</code> uses the Zip64 extensions, which it needs for more than 65,535 entries, or
+     * for entries or an archive larger than 4 GB: <code>as-needed</code>, <code>always</code>, or
+     * <code>never</code>, which fails the build for a site that needs them, for the sake of tools that cannot
+     * read Zip64.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "as-needed", property = "commons.release.zip64Mode")
+    private String zip64Mode;
+
+    /**
+     * The memory budget, in megabytes, of the entries that are deflated in parallel, as the sum of the sizes of
+     * their files. Files larger than the budget are deflated one at a time while they are written.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "256", property = "commons.release.compressionMemoryLimit")
+    private Integer compressionMemoryLimit;
+
+    /**
+     * The {@link Zip64Mode} resolved from {@link #zip64Mode}.
+     */
+    private Zip64Mode zip64;
+
+    /**
+     * The {@link SiteArchiveFormat} resolved from {@link #siteArchiveFormat}.
+     */
+    private SiteArchiveFormat archiveFormat;
+
+    /**
+     * The deflate level resolved from {@link #compressionPreset} and {@link #compressionLevel}.
+     */
+    private int level;
+
+    /**
+     * The deflate strategy resolved from {@link #compressionPreset} and {@link #compressionStrategy}.
+     */
+    private int strategy;
+
+    /**
+     * The {@link StoredEntryRules} built from {@link #storedExtensions} and {@link #probeCompressibility}.
+     */
+    private StoredEntryRules storedEntryRules;
+
+    /**
+     * The number of files found by the last {@link #walkSite(SiteFileVisitor)}.
+     */
+    private int siteFileCount;
+
+    /**
+     * The total size of the files found by the last {@link #walkSite(SiteFileVisitor)}.
+     */
+    private long siteByteCount;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -104,79 +303,402 @@ public class CommonsSiteCompressionMojo extends AbstractMojo {
             getLog().info("Current project contains no distributions. Not executing.");
             return;
         }
+        resolveLevelAndStrategy();
         try {
-            filesToCompress = new ArrayList<>();
-            getAllSiteFiles(siteDirectory, filesToCompress);
-            writeZipFile(workingDirectory, siteDirectory, filesToCompress);
+            storedEntryRules = new StoredEntryRules(storedExtensions, Boolean.TRUE.equals(probeCompressibility));
+            final long startNanos = System.nanoTime();
+            if (archiveFormat.getTarCompressor() != null) {
+                writeTarArchive(getSiteArchive());
+            } else if (Boolean.TRUE.equals(incrementalSiteZip)) {
+                writeZipFileIncrementally(workingDirectory);
+            } else if (compressionThreads != null && compressionThreads == 1) {
+                writeZipFile(workingDirectory);
+            } else {
+                writeZipFileInParallel(new File(workingDirectory, "site.zip"), null);
+            }
+            logCompressionRatio(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            if (entryTime >= 0) {
+                writeDigest(getSiteArchive());
+            } else {
+                // the digest of an earlier reproducible archive would make the staging skip this one
+                Files.deleteIfExists(new File(workingDirectory, archiveFormat.getDigestFileName()).toPath());
+            }
         } catch (final IOException e) {
-            getLog().error("Failed to create ./target/commons-release-plugin/site.zip: " + e.getMessage(), e);
+            getLog().error("Failed to create " + getSiteArchive() + ": " + e.getMessage(), e);
             throw new MojoExecutionException(
-                    "Failed to create ./target/commons-release-plugin/site.zip: " + e.getMessage(),
+                    "Failed to create " + getSiteArchive() + ": " + e.getMessage(),
                     e
             );
         }
     }
 
     /**
-     * By default this method iterates across the <code>target/site</code> directory and adds all of the files
-     * to the {@link CommonsSiteCompressionMojo#filesToCompress} {@link List}.
+     * Resolves the {@link #archiveFormat} from the {@link #siteArchiveFormat}, and the deflate {@link #level} and
+     * {@link #strategy} from the {@link #compressionPreset}, and the {@link #compressionLevel} and
+     * {@link #compressionStrategy} that override it.
+     *
+     * @throws MojoExecutionException if the format, preset, level or strategy is not valid.
+     */
+    private void resolveLevelAndStrategy() throws MojoExecutionException {
+        try {
+            archiveFormat = SiteArchiveFormat.ZIP;
+            if (StringUtils.isNotBlank(siteArchiveFormat)) {
+                archiveFormat = SiteArchiveFormat.fromName(siteArchiveFormat);
+            }
+            CompressionPreset preset = CompressionPreset.BALANCED;
+            if (StringUtils.isNotBlank(compressionPreset)) {
+                preset = CompressionPreset.fromName(compressionPreset);
+            }
+            level = preset.getLevel();
+            strategy = preset.getStrategy();
+            if (compressionLevel != null) {
+                if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+                    throw new MojoExecutionException("Unsupported compression level: " + compressionLevel);
+                }
+                level = compressionLevel;
+            }
+            if (StringUtils.isNotBlank(compressionStrategy)) {
+                strategy = CompressionPreset.getStrategy(compressionStrategy);
+            }
+            entryTime = Boolean.TRUE.equals(reproducibleSite) ? parseOutputTimestamp() : -1;
+            zip64 = parseZip64Mode();
+            if (compressionMemoryLimit == null) {
+                compressionMemoryLimit = DEFAULT_COMPRESSION_MEMORY_LIMIT;
+            } else if (compressionMemoryLimit < 1) {
+                throw new MojoExecutionException("Unsupported compression memory limit: " + compressionMemoryLimit);
+            }
+        } catch (final IllegalArgumentException | DateTimeParseException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses the {@link #outputTimestamp}. Like the Maven archivers, a value of less than two characters counts
+     * as not set.
+     *
+     * @return the modification time of the entries of a reproducible archive, in milliseconds since the epoch.
+     */
+    private long parseOutputTimestamp() {
+        if (outputTimestamp == null || outputTimestamp.trim().length() < 2) {
+            return OffsetDateTime.parse(DEFAULT_OUTPUT_TIMESTAMP).toInstant().toEpochMilli();
+        }
+        final String timestamp = outputTimestamp.trim();
+        if (StringUtils.isNumeric(timestamp)) {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(timestamp));
+        }
+        return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Parses the {@link #zip64Mode}.
+     *
+     * @return the {@link Zip64Mode}, {@link Zip64Mode#AsNeeded} if the mode is not set.
+     */
+    private Zip64Mode parseZip64Mode() {
+        if (StringUtils.isBlank(zip64Mode)) {
+            return Zip64Mode.AsNeeded;
+        }
+        switch (zip64Mode.trim().toLowerCase(Locale.ROOT)) {
+        case "as-needed":
+            return Zip64Mode.AsNeeded;
+        case "always":
+            return Zip64Mode.Always;
+        case "never":
+            return Zip64Mode.Never;
+        default:
+            throw new IllegalArgumentException("Unsupported Zip64 mode: " + zip64Mode
+                    + ", expected one of as-needed, always, never");
+        }
+    }
+
+    /**
+     * Gets the modification time to give the entries of a reproducible zip file. Zip files hold local times
+     * without a time zone, so the time is shifted by the offset of the default time zone, which makes the zip
+     * file hold the {@link #entryTime} in UTC wherever it is built.
+     *
+     * @return the modification time of the zip entries, or a negative value if the archive is not reproducible.
+     */
+    private long getZipEntryTime() {
+        return entryTime < 0 ? entryTime : entryTime - TimeZone.getDefault().getOffset(entryTime);
+    }
+
+    /**
+     * Writes the SHA-512 digest of the site archive to a <code>.sha512</code> file next to it.
+     *
+     * @param archive the site archive.
+     * @throws IOException if the archive cannot be read or the digest cannot be written.
+     */
+    private void writeDigest(final File archive) throws IOException {
+        final MessageDigest messageDigest = DigestUtils.getDigest(SiteArchiveFormat.DIGEST_ALGORITHM);
+        DigestMode.STREAM.digest(archive, messageDigest);
+        final String digest = Hex.encodeHexString(messageDigest.digest());
+        final File digestFile = new File(workingDirectory, archiveFormat.getDigestFileName());
+        try (PrintWriter printWriter = new PrintWriter(digestFile, StandardCharsets.UTF_8.name())) {
+            printWriter.println(digest);
+        }
+        getLog().info(archive.getName() + " " + digestFile.getName() + ": " + digest);
+    }
+
+    /**
+     * Gets the site archive in the {@link #workingDirectory}, whose name depends on the {@link #archiveFormat}.
+     *
+     * @return the site archive, for example <code>site.zip</code>.
+     */
+    private File getSiteArchive() {
+        return new File(workingDirectory, archiveFormat.getFileName());
+    }
+
+    /**
+     * Logs the size of the site, the size of the site archive, and how long it took to compress it.
      *
-     * @param siteDirectory the {@link File} that represents the <code>target/site</code> directory.
-     * @param filesToCompress the {@link List} to which to add all the files.
+     * @param elapsedMillis the time it took to write the site archive.
      */
-    private void getAllSiteFiles(final File siteDirectory, final List<File> filesToCompress) {
-        final File[] files = siteDirectory.listFiles();
-        for (final File file : files) {
-            filesToCompress.add(file);
-            if (file.isDirectory()) {
-                getAllSiteFiles(file, filesToCompress);
+    private void logCompressionRatio(final long elapsedMillis) {
+        final long siteBytes = siteByteCount;
+        final long zipBytes = getSiteArchive().length();
+        getLog().info(String.format(Locale.ROOT, "Compressed the site with preset %s (level %d, strategy %d): "
+                + "%d bytes to %d bytes (%.1f%%) in %d ms",
+                StringUtils.defaultIfBlank(compressionPreset, "balanced"), level, strategy, siteBytes, zipBytes,
+                siteBytes == 0 ? 0 : zipBytes * PERCENT / siteBytes, elapsedMillis));
+    }
+
+    /**
+     * Walks the {@link #siteDirectory} and hands each file to the <code>visitor</code> as soon as it is found,
+     * with the path of the file relative to the site directory as the name of its zip entry. Only the site
+     * directory itself is canonicalized, the entry names are derived from it with {@link Path#relativize(Path)}.
+     * For a {@link #reproducibleSite}, the files of each directory are visited in the order of their names.
+     * This also counts the {@link #siteFileCount} and {@link #siteByteCount}.
+     *
+     * @param visitor the {@link SiteFileVisitor} that adds the files to the zip file.
+     * @throws IOException if the site cannot be walked or a file cannot be added.
+     */
+    private void walkSite(final SiteFileVisitor visitor) throws IOException {
+        siteFileCount = 0;
+        siteByteCount = 0;
+        final Path root = siteDirectory.getCanonicalFile().toPath();
+        if (entryTime >= 0) {
+            walkSiteInOrder(root, root, visitor);
+            return;
+        }
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes)
+                            throws IOException {
+                        if (!attributes.isDirectory()) { // we only zip files, not directories
+                            visitSiteFile(root, file, attributes.size(), visitor);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+    }
+
+    /**
+     * Walks a directory of the site depth first, visiting the files and subdirectories of each directory in the
+     * order of their names. Only the entries of one directory are held in memory at a time.
+     *
+     * @param root the canonical site directory.
+     * @param directory the directory to walk.
+     * @param visitor the {@link SiteFileVisitor} that adds the files to the archive.
+     * @throws IOException if the directory cannot be listed or a file cannot be added.
+     */
+    private void walkSiteInOrder(final Path root, final Path directory, final SiteFileVisitor visitor)
+            throws IOException {
+        final List<Path> children;
+        try (Stream<Path> stream = Files.list(directory)) {
+            children = stream.sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        for (final Path child : children) {
+            if (Files.isDirectory(child)) {
+                walkSiteInOrder(root, child, visitor);
+            } else {
+                visitSiteFile(root, child, Files.size(child), visitor);
             }
         }
     }
 
     /**
-     * A helper method for writing all of the files in our <code>fileList</code> to a <code>site.zip</code> file
-     * in the <code>workingDirectory</code>.
+     * Counts a file of the site, and hands it to the <code>visitor</code>.
+     *
+     * @param root the canonical site directory.
+     * @param file the file.
+     * @param size the size of the file.
+     * @param visitor the {@link SiteFileVisitor} that adds the files to the archive.
+     * @throws IOException if the file cannot be added.
+     */
+    private void visitSiteFile(final Path root, final Path file, final long size, final SiteFileVisitor visitor)
+            throws IOException {
+        siteFileCount++;
+        siteByteCount += size;
+        visitor.visitFile(root.relativize(file).toString().replace(File.separatorChar, '/'), file.toFile());
+    }
+
+    /**
+     * A helper method for writing all of the files of the site to a <code>site.zip</code> file in the
+     * <code>workingDirectory</code>.
      *
      * @param outputDirectory is a {@link File} representing the place to put the site.zip file.
-     * @param directoryToZip is a {@link File} representing the directory of the site (normally
-     *                       <code>target/site</code>).
-     * @param fileList the list of files to be zipped up, generally generated by
-     *                 {@link CommonsSiteCompressionMojo#getAllSiteFiles(File, List)}.
      * @throws IOException when the copying of the files goes incorrectly.
      */
-    private void writeZipFile(final File outputDirectory, final File directoryToZip, final List<File> fileList)
+    private void writeZipFile(final File outputDirectory) throws IOException {
+        try (ZipArchiveOutputStream zos = newZipArchiveOutputStream(new File(outputDirectory, "site.zip"))) {
+            walkSite((entryName, file) -> addToZip(entryName, file, zos));
+        }
+    }
+
+    /**
+     * Creates the {@link ZipArchiveOutputStream} of a zip file, with the deflate {@link #level} and
+     * {@link #strategy}, and the {@link #zip64Mode}.
+     *
+     * @param zipFile the zip file to write.
+     * @return the {@link ZipArchiveOutputStream}.
+     * @throws IOException if the zip file cannot be created.
+     */
+    private ZipArchiveOutputStream newZipArchiveOutputStream(final File zipFile) throws IOException {
+        final ZipArchiveOutputStream zos = new StrategyZipArchiveOutputStream(zipFile, strategy);
+        zos.setLevel(level);
+        zos.setUseZip64(zip64);
+        zos.setComment(ReusableZipEntries.getComment(level, strategy));
+        return zos;
+    }
+
+    /**
+     * Writes all of the files of the site to a zip file, like {@link #writeZipFile(File)}, but deflates the
+     * files on {@link #compressionThreads} threads with a {@link ParallelZipCreator}, which appends the deflated
+     * entries to the zip file while the site is still being walked.
+     *
+     * @param zipFile the zip file to write.
+     * @param reusableZipEntries the entries of a previous zip file to copy instead of deflating the files again,
+     *                           or <code>null</code>.
+     * @throws IOException when the copying of the files goes incorrectly.
+     */
+    private void writeZipFileInParallel(final File zipFile, final ReusableZipEntries reusableZipEntries)
             throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(outputDirectory.getAbsolutePath() + "/site.zip");
-                ZipOutputStream zos = new ZipOutputStream(fos)) {
-            for (final File file : fileList) {
-                if (!file.isDirectory()) { // we only zip files, not directories
-                    addToZip(directoryToZip, file, zos);
+        try (ZipArchiveOutputStream zos = newZipArchiveOutputStream(zipFile);
+                ParallelZipCreator creator = new ParallelZipCreator(zos, compressionThreads, level, strategy,
+                        storedEntryRules, reusableZipEntries)) {
+            creator.setEntryTime(getZipEntryTime());
+            creator.setMemoryLimit(compressionMemoryLimit * BYTES_PER_MEGABYTE);
+            walkSite(creator::addFile);
+            creator.finish();
+        }
+    }
+
+    /**
+     * Writes all of the files of the site to a tar archive, compressed in the {@link #archiveFormat} on
+     * {@link #compressionThreads} threads.
+     *
+     * @param archive the archive to write.
+     * @throws IOException when the copying of the files goes incorrectly.
+     */
+    private void writeTarArchive(final File archive) throws IOException {
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(archiveFormat.getTarCompressor()
+                .newCompressorOutputStream(Files.newOutputStream(archive.toPath()), compressionThreads, level))) {
+            tos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tos.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            walkSite((entryName, file) -> {
+                final TarArchiveEntry entry = new TarArchiveEntry(file, entryName);
+                if (entryTime >= 0) {
+                    // the entry takes the name of the user running the build by default
+                    entry.setModTime(entryTime);
+                    entry.setMode(TarArchiveEntry.DEFAULT_FILE_MODE);
+                    entry.setIds(0, 0);
+                    entry.setUserName("");
+                    entry.setGroupName("");
                 }
-            }
+                tos.putArchiveEntry(entry);
+                Files.copy(file.toPath(), tos);
+                tos.closeArchiveEntry();
+            });
+            tos.finish();
         }
     }
 
     /**
-     * Given the <code>directoryToZip</code> we add the <code>file</code> to the zip archive represented by
-     * <code>zos</code>.
+     * Updates the <code>site.zip</code> file in the <code>workingDirectory</code> from a previous run, like
+     * {@link #writeZipFileInParallel(File, ReusableZipEntries)}, but copies the entries of the previous zip file
+     * whose files have not changed instead of deflating them again. The previous zip file is renamed to
+     * <code>site.zip.previous</code> while the new one is written, and deleted afterwards.
      *
-     * @param directoryToZip a {@link File} representing the directory from which the file exists that we are
-     *                       compressing. Generally this is <code>target/site</code>.
-     * @param file a {@link File} to add to the {@link ZipOutputStream} <code>zos</code>.
-     * @param zos the {@link ZipOutputStream} to which to add our <code>file</code>.
+     * @param outputDirectory is a {@link File} representing the place to put the site.zip file.
+     * @throws IOException when the copying of the files goes incorrectly.
+     */
+    private void writeZipFileIncrementally(final File outputDirectory) throws IOException {
+        final File siteZip = new File(outputDirectory, "site.zip");
+        final File previousSiteZip = new File(outputDirectory, "site.zip.previous");
+        if (siteZip.isFile()) {
+            Files.move(siteZip.toPath(), previousSiteZip.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (ReusableZipEntries reusableZipEntries = new ReusableZipEntries(previousSiteZip,
+                ReusableZipEntries.getComment(level, strategy))) {
+            writeZipFileInParallel(siteZip, reusableZipEntries);
+            getLog().info(String.format("Reused %d of %d entries of the previous site.zip",
+                    reusableZipEntries.getReusedCount(), siteFileCount));
+        }
+        Files.deleteIfExists(previousSiteZip.toPath());
+    }
+
+    /**
+     * Adds the <code>file</code> to the zip archive represented by <code>zos</code>.
+     *
+     * @param entryName the path of the file relative to the directory being zipped, which is the name of its
+     *                  zip entry.
+     * @param file a {@link File} to add to the {@link ZipArchiveOutputStream} <code>zos</code>.
+     * @param zos the {@link ZipArchiveOutputStream} to which to add our <code>file</code>.
      * @throws IOException if adding the <code>file</code> doesn't work out properly.
      */
-    private void addToZip(final File directoryToZip, final File file, final ZipOutputStream zos) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            // we want the zipEntry's path to be a relative path that is relative
-            // to the directory being zipped, so chop off the rest of the path
-            final String zipFilePath = file.getCanonicalPath().substring(
-                    directoryToZip.getCanonicalPath().length() + 1,
-                    file.getCanonicalPath().length());
-            final ZipEntry zipEntry = new ZipEntry(zipFilePath);
-            zos.putNextEntry(zipEntry);
-            IOUtils.copy(fis, zos);
+    private void addToZip(final String entryName, final File file, final ZipArchiveOutputStream zos)
+            throws IOException {
+        final ZipArchiveEntry zipEntry = new ZipArchiveEntry(file, entryName);
+        if (entryTime >= 0) {
+            zipEntry.setTime(getZipEntryTime());
+        }
+        if (storedEntryRules.isStored(file)) {
+            // already compressed files are stored as they are, which needs their size and CRC up front
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setSize(file.length());
+            zipEntry.setCompressedSize(file.length());
+            zipEntry.setCrc(FileUtils.checksumCRC32(file));
+        } else {
+            zipEntry.setMethod(ZipEntry.DEFLATED);
+        }
+        zos.putArchiveEntry(zipEntry);
+        Files.copy(file.toPath(), zos);
+        zos.closeArchiveEntry();
+    }
+
+    /**
+     * Receives the files of the site from {@link #walkSite(SiteFileVisitor)}.
+     */
+    private interface SiteFileVisitor {
+
+        /**
+         * Visits a file of the site.
+         *
+         * @param entryName the path of the file relative to the site directory, with <code>/</code> separators.
+         * @param file the {@link File}.
+         * @throws IOException if the file cannot be added to the zip file.
+         */
+        void visitFile(String entryName, File file) throws IOException;
+    }
+
+    /**
+     * A {@link ZipArchiveOutputStream} whose {@link Deflater} uses a given strategy, which
+     * {@link ZipArchiveOutputStream} has no setter for.
+     */
+    private static final class StrategyZipArchiveOutputStream extends ZipArchiveOutputStream {
+
+        /**
+         * Creates the stream.
+         *
+         * @param zipFile the zip file to write.
+         * @param strategy the {@link Deflater} strategy.
+         * @throws IOException if the zip file cannot be created.
+         */
+        private StrategyZipArchiveOutputStream(final File zipFile, final int strategy) throws IOException {
+            super(zipFile);
+            def.setStrategy(strategy);
         }
     }
 }
@@ -17,7 +17,10 @@
 package org.apache.commons.release.plugin.mojos;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.release.plugin.RetentionPolicy;
 import org.apache.commons.release.plugin.SharedFunctions;
+import org.apache.commons.release.plugin.SvnCommands;
+import org.apache.commons.release.plugin.SvnListEntry;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -29,7 +32,6 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.command.checkin.CheckInScmResult;
-import org.apache.maven.scm.command.checkout.CheckOutScmResult;
 import org.apache.maven.scm.command.remove.RemoveScmResult;
 import org.apache.maven.scm.manager.BasicScmManager;
 import org.apache.maven.scm.manager.ScmManager;
@@ -41,12 +43,17 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
 
 import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class checks out the dev distribution location, checkes whether anything exists in the
- * distribution location, and if it is non-empty it deletes all of the resources there.
+ * distribution location, and if it is non-empty it deletes all of the resources there. With the
+ * <code>url</code> {@link #distCleanupMode}, the resources are listed and deleted on the server instead,
+ * without a checkout, and the retention rules {@link #distRetainLatest}, {@link #distRetainPattern} and
+ * {@link #distRetainMaxAgeDays} can keep some of them.
  *
  * @author chtompki
  * @since 1.6
@@ -57,6 +64,11 @@ import java.util.List;
         aggregator = true)
 public class CommonsStagingCleanupMojo extends AbstractMojo {
 
+    /** The {@link #distCleanupMode} that deletes the resources from a checkout of the staging area. */
+    private static final String CLEANUP_MODE_CHECKOUT = "checkout";
+    /** The {@link #distCleanupMode} that lists and deletes the resources on the server. */
+    private static final String CLEANUP_MODE_URL = "url";
+
     /**
      * The {@link MavenProject} object is essentially the context of the maven build at
      * a given time.
@@ -79,6 +91,55 @@ public class CommonsStagingCleanupMojo extends AbstractMojo {
             property = "commons.distCleanupDirectory")
     private File distCleanupDirectory;
 
+    /**
+     * The depth at which the dist subversion repository is checked out for the cleanup: <code>empty</code>,
+     * <code>files</code>, <code>immediates</code> or <code>infinity</code>. Only the top level entries are deleted,
+     * so <code>immediates</code> is enough and does not download the contents of the staged release candidates.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = "immediates", property = "commons.distCleanupCheckoutDepth")
+    private String distCleanupCheckoutDepth;
+
+    /**
+     * How the staging area is cleaned up: <code>checkout</code> checks it out at the
+     * {@link #distCleanupCheckoutDepth} and commits the removal of everything in it, while <code>url</code>
+     * lists the children of the {@link #distSvnStagingUrl} on the server and deletes them in a single server
+     * side commit, which downloads nothing at all.
+     *
+     * @since 1.8
+     */
+    @Parameter(defaultValue = CLEANUP_MODE_CHECKOUT, property = "commons.distCleanupMode")
+    private String distCleanupMode;
+
+    /**
+     * The number of the most recently changed release candidate directories of the staging area, named like
+     * <code>1.4-RC2</code>, that the <code>url</code> {@link #distCleanupMode} keeps, along with the root files that
+     * were staged with the newest of them. Unset keeps none of them by recency.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.distRetainLatest")
+    private Integer distRetainLatest;
+
+    /**
+     * A regular expression matching the names of the entries of the staging area that the <code>url</code>
+     * {@link #distCleanupMode} keeps, for example <code>2\..*</code>. Unset keeps none of them by name.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.distRetainPattern")
+    private String distRetainPattern;
+
+    /**
+     * The number of days after their last change after which the <code>url</code> {@link #distCleanupMode} deletes
+     * the entries of the staging area, keeping the younger ones. Unset keeps none of them by age.
+     *
+     * @since 1.8
+     */
+    @Parameter(property = "commons.distRetainMaxAgeDays")
+    private Integer distRetainMaxAgeDays;
+
     /**
      * A boolean that determines whether or not we actually commit the files up to the subversion repository.
      * If this is set to <code>true</code>, we do all but make the commits. We do checkout the repository in question
@@ -143,6 +204,20 @@ public class CommonsStagingCleanupMojo extends AbstractMojo {
             getLog().warn("commons.distSvnStagingUrl is not set, the commons-release-plugin will not run.");
             return;
         }
+        if (!CLEANUP_MODE_CHECKOUT.equals(distCleanupMode) && !CLEANUP_MODE_URL.equals(distCleanupMode)) {
+            throw new MojoExecutionException("Unsupported cleanup mode: " + distCleanupMode + ", expected "
+                    + CLEANUP_MODE_CHECKOUT + " or " + CLEANUP_MODE_URL);
+        }
+        final RetentionPolicy retentionPolicy;
+        try {
+            retentionPolicy = new RetentionPolicy(distRetainLatest, distRetainPattern, distRetainMaxAgeDays);
+        } catch (final IllegalArgumentException e) {
+            throw new MojoExecutionException("Invalid retention rules: " + e.getMessage(), e);
+        }
+        if (retentionPolicy.hasRules() && !CLEANUP_MODE_URL.equals(distCleanupMode)) {
+            throw new MojoExecutionException("The retention rules need the " + CLEANUP_MODE_URL
+                    + " cleanup mode, not " + distCleanupMode);
+        }
         if (!workingDirectory.exists()) {
             SharedFunctions.initDirectory(getLog(), workingDirectory);
         }
@@ -161,43 +236,92 @@ public class CommonsStagingCleanupMojo extends AbstractMojo {
                     username,
                     password
             );
-            getLog().info("Checking out dist from: " + distSvnStagingUrl);
-            final ScmFileSet scmFileSet = new ScmFileSet(distCleanupDirectory);
-            final CheckOutScmResult checkOutResult = provider.checkOut(repository, scmFileSet);
-            if (!checkOutResult.isSuccess()) {
-                throw new MojoExecutionException("Failed to checkout files from SCM: "
-                        + checkOutResult.getProviderMessage() + " [" + checkOutResult.getCommandOutput() + "]");
-            }
-            final List<File> filesToRemove = Arrays.asList(distCleanupDirectory.listFiles());
-            if (filesToRemove.size() == 1) {
-                getLog().info("No files to delete");
-                return;
-            }
-            if (!dryRun) {
-                final ScmFileSet fileSet = new ScmFileSet(distCleanupDirectory, filesToRemove);
-                final RemoveScmResult removeScmResult = provider.remove(repository, fileSet,
-                        "Cleaning up staging area");
-                if (!removeScmResult.isSuccess()) {
-                    throw new MojoFailureException("Failed to remove files from SCM: "
-                            + removeScmResult.getProviderMessage()
-                            + " [" + removeScmResult.getCommandOutput() + "]");
-                }
-                getLog().info("Cleaning distribution area for: " + project.getArtifactId());
-                final CheckInScmResult checkInResult = provider.checkIn(
-                        repository,
-                        fileSet,
-                        "Cleaning distribution area for: " + project.getArtifactId()
-                );
-                if (!checkInResult.isSuccess()) {
-                    throw new MojoFailureException("Failed to commit files: " + removeScmResult.getProviderMessage()
-                            + " [" + removeScmResult.getCommandOutput() + "]");
-                }
+            if (CLEANUP_MODE_URL.equals(distCleanupMode)) {
+                cleanUpByUrl(providerRepository, retentionPolicy);
             } else {
-                getLog().info("Would have attempted to delete files from: " + distSvnStagingUrl);
+                cleanUpCheckout(provider, repository, providerRepository);
             }
         } catch (final ScmException e) {
             throw new MojoFailureException(e.getMessage());
         }
+    }
 
+    /**
+     * Checks out the staging area at the {@link #distCleanupCheckoutDepth}, and removes everything in it in one
+     * commit.
+     *
+     * @param provider the {@link ScmProvider} of the staging area.
+     * @param repository the {@link ScmRepository} of the staging area.
+     * @param providerRepository the {@link SvnScmProviderRepository} of the staging area, with its credentials.
+     * @throws MojoExecutionException if the checkout fails.
+     * @throws MojoFailureException if the removal or the commit fails.
+     * @throws ScmException if the SCM provider fails.
+     */
+    private void cleanUpCheckout(final ScmProvider provider, final ScmRepository repository,
+                                 final SvnScmProviderRepository providerRepository)
+            throws MojoExecutionException, MojoFailureException, ScmException {
+        getLog().info("Checking out dist from: " + distSvnStagingUrl + " at depth " + distCleanupCheckoutDepth);
+        SvnCommands.checkOut(getLog(), providerRepository, distCleanupDirectory, distCleanupCheckoutDepth);
+        final List<File> filesToRemove = Arrays.asList(distCleanupDirectory.listFiles());
+        if (filesToRemove.size() == 1) {
+            getLog().info("No files to delete");
+            return;
+        }
+        if (!dryRun) {
+            final ScmFileSet fileSet = new ScmFileSet(distCleanupDirectory, filesToRemove);
+            final RemoveScmResult removeScmResult = provider.remove(repository, fileSet,
+                    "Cleaning up staging area");
+            if (!removeScmResult.isSuccess()) {
+                throw new MojoFailureException("Failed to remove files from SCM: "
+                        + removeScmResult.getProviderMessage()
+                        + " [" + removeScmResult.getCommandOutput() + "]");
+            }
+            getLog().info("Cleaning distribution area for: " + project.getArtifactId());
+            final CheckInScmResult checkInResult = provider.checkIn(
+                    repository,
+                    fileSet,
+                    "Cleaning distribution area for: " + project.getArtifactId()
+            );
+            if (!checkInResult.isSuccess()) {
+                throw new MojoFailureException("Failed to commit files: " + removeScmResult.getProviderMessage()
+                        + " [" + removeScmResult.getCommandOutput() + "]");
+            }
+        } else {
+            getLog().info("Would have attempted to delete files from: " + distSvnStagingUrl);
+        }
+    }
+
+    /**
+     * Lists everything in the staging area on the server, and deletes the children that the
+     * {@link RetentionPolicy} does not keep in one server side commit, without a working copy. The number of bytes
+     * that the deletion reclaims is logged.
+     *
+     * @param providerRepository the {@link SvnScmProviderRepository} of the staging area, with its credentials.
+     * @param retentionPolicy the {@link RetentionPolicy} that selects the children to delete.
+     * @throws MojoExecutionException if the listing or the deletion fails.
+     */
+    private void cleanUpByUrl(final SvnScmProviderRepository providerRepository,
+                              final RetentionPolicy retentionPolicy) throws MojoExecutionException {
+        getLog().info("Listing dist staging area: " + distSvnStagingUrl);
+        final List<SvnListEntry> entries = SvnCommands.listVerbose(getLog(), providerRepository, workingDirectory);
+        final List<SvnListEntry> deleted = retentionPolicy.selectForDeletion(entries, Instant.now());
+        if (deleted.isEmpty()) {
+            getLog().info("No files to delete");
+            return;
+        }
+        final List<String> children = new ArrayList<>();
+        for (final SvnListEntry child : deleted) {
+            children.add(child.getName());
+        }
+        final long reclaimedBytes = RetentionPolicy.getSize(entries, deleted);
+        if (!dryRun) {
+            getLog().info(String.format("Cleaning distribution area for: %s, deleting %s, reclaiming %d bytes",
+                    project.getArtifactId(), children, reclaimedBytes));
+            getLog().info(SvnCommands.deleteChildren(getLog(), providerRepository, workingDirectory, children,
+                    "Cleaning distribution area for: " + project.getArtifactId()).trim());
+        } else {
+            getLog().info(String.format("Would have attempted to delete %s from: %s, reclaiming %d bytes",
+                    children, distSvnStagingUrl, reclaimedBytes));
+        }
     }
 }
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.mojos;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.release.plugin.SharedFunctions;
+import org.apache.commons.release.plugin.SiteArchiveFormat;
+import org.apache.commons.release.plugin.SvnCommands;
+import org.apache.commons.release.plugin.TokenReplacer;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Generates the <code>VOTE.txt</code> e-mail for a release candidate, from the
+ * <code>vote-txt-template.txt</code> template. The digests of the artifacts are taken from the
+ * <code>sha512.properties</code> that the {@link CommonsDistributionDetachmentMojo} wrote, and the revision of the
+ * release candidate from the {@link CommonsDistributionStagingMojo}, so nothing is hashed again and, once the
+ * release candidate is staged, nothing is asked from the dist server.
+ *
+ * @since 1.8
+ */
+@Mojo(name = "vote-txt",
+        threadSafe = true,
+        aggregator = true)
+public class CommonsVoteTxtMojo extends AbstractMojo {
+
+    /** The location of the template on the classpath. */
+    private static final String TEMPLATE = "resources/commons-xdoc-templates/vote-txt-template.txt";
+
+    /** The url of the dev area of the Commons dist repository. */
+    private static final String DIST_DEV_URL = "https://dist.apache.org/repos/dist/dev/commons/";
+
+    /**
+     * The {@link MavenProject} object is essentially the context of the maven build at
+     * a given time.
+     */
+    @Parameter(defaultValue = "${project}", required = true)
+    private MavenProject project;
+
+    /**
+     * The main working directory for the plugin, namely <code>target/commons-release-plugin</code>, where the
+     * <code>sha512.properties</code> and the staged revision are.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/commons-release-plugin", property = "commons.outputDirectory")
+    private File workingDirectory;
+
+    /** The file to write the e-mail to. */
+    @Parameter(defaultValue = "${project.build.directory}/VOTE.txt", property = "commons.voteTxtFile")
+    private File voteTxtFile;
+
+    /** The commons component id, for example <code>text</code>. */
+    @Parameter(property = "commons.componentid", required = true)
+    private String componentId;
+
+    /** The external JIRA id for the project, alphabetic and upper case. */
+    @Parameter(property = "commons.jira.id")
+    private String jiraId;
+
+    /** The version of the release candidate. */
+    @Parameter(property = "commons.release.version", required = true)
+    private String releaseVersion;
+
+    /** The release candidate, for example <code>RC1</code>. */
+    @Parameter(property = "commons.rc.version", required = true)
+    private String rcVersion;
+
+    /** The version of the latest release of the project this candidate should have binary compatibility with. */
+    @Parameter(property = "commons.bc.version")
+    private String bcVersion;
+
+    /** Release manager name. This should be defined in your Maven settings.xml file, not the POM. */
+    @Parameter(property = "commons.releaseManagerName")
+    private String releaseManagerName;
+
+    /** Release manager key. This should be defined in your Maven settings.xml file, not the POM. */
+    @Parameter(property = "commons.releaseManagerKey")
+    private String releaseManagerKey;
+
+    /**
+     * The Nexus repository ID on https://repository.apache.org/, usually a four digit number. This is the value
+     * after https://repository.apache.org/content/repositories/orgapachecommons-
+     */
+    @Parameter(property = "commons.nexus.repo.id")
+    private String nexusRepoId;
+
+    /**
+     * The url of the release candidate in the dist repository. Defaults to
+     * <code>https://dist.apache.org/repos/dist/dev/commons/&lt;componentid&gt;/&lt;version&gt;-&lt;rc&gt;</code>.
+     */
+    @Parameter(property = "svn.dist.url")
+    private String distUrl;
+
+    /** The url of the site of the release candidate. Defaults to the <code>site</code> under the {@link #distUrl}. */
+    @Parameter(property = "svn.site.url")
+    private String siteUrl;
+
+    /**
+     * The Git tag of the release candidate. Defaults to
+     * <code>commons-&lt;componentid&gt;-&lt;version&gt;-&lt;rc&gt;</code>.
+     */
+    @Parameter(property = "git.tag.name")
+    private String tagName;
+
+    /** The Git commit of the {@link #tagName}. Defaults to the output of <code>git rev-list -n 1 &lt;tag&gt;</code>. */
+    @Parameter(property = "git.tag.commit")
+    private String tagCommit;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (StringUtils.isEmpty(nexusRepoId)) {
+            throw new MojoExecutionException("Must specify the property commons.nexus.repo.id");
+        }
+        final String rcName = releaseVersion + "-" + rcVersion;
+        final String dist = StringUtils.defaultIfEmpty(distUrl, DIST_DEV_URL + componentId + "/" + rcName);
+        final String site = StringUtils.defaultIfEmpty(siteUrl, dist + "/site");
+        final String tag = StringUtils.defaultIfEmpty(tagName, "commons-" + componentId + "-" + rcName);
+        getLog().info("The SVN RC URL must be '" + dist + "'");
+        getLog().info("The Git RC tag must be '" + tag + "'");
+        getLog().info("The SVN site URL must be '" + site + "'");
+        final Map<String, String> values = new HashMap<>();
+        values.put("NAME", project.getName());
+        values.put("ARTIFACTID", project.getArtifactId());
+        values.put("ARTIFACTCOREID", StringUtils.remove(project.getArtifactId(), "-project"));
+        values.put("GROUPID", project.getGroupId());
+        values.put("GROUPPATH", StringUtils.replaceChars(project.getGroupId(), '.', '/'));
+        values.put("JIRA_ID", jiraId);
+        values.put("VERSION", releaseVersion);
+        values.put("RC", rcVersion);
+        values.put("BC", bcVersion);
+        values.put("DESCRIPTION", project.getDescription());
+        values.put("ID", componentId);
+        values.put("RMNAME", releaseManagerName);
+        values.put("RMKEY", releaseManagerKey);
+        values.put("RCREV", getStagedRevision(dist));
+        values.put("SHA512LIST", getDigestList());
+        values.put("DISTURL", dist);
+        values.put("TAGNAME", tag);
+        values.put("TAGCOMMIT", StringUtils.defaultIfEmpty(tagCommit, getTagCommit(tag)));
+        values.put("SITEURL", site);
+        values.put("NEXUS_REPO_ID", nexusRepoId);
+        getLog().info("Generating " + voteTxtFile);
+        writeVoteTxt(new TokenReplacer(values));
+    }
+
+    /**
+     * Renders the template into the {@link #voteTxtFile}, in a single streaming pass.
+     *
+     * @param replacer the {@link TokenReplacer} with the values of the tokens of the template.
+     * @throws MojoExecutionException if the template cannot be read or the file cannot be written.
+     */
+    private void writeVoteTxt(final TokenReplacer replacer) throws MojoExecutionException {
+        final File parent = voteTxtFile.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            SharedFunctions.initDirectory(getLog(), parent);
+        }
+        try (InputStream template = CommonsVoteTxtMojo.class.getClassLoader().getResourceAsStream(TEMPLATE)) {
+            if (template == null) {
+                throw new MojoExecutionException("Could not find the template " + TEMPLATE);
+            }
+            try (Reader reader = new BufferedReader(new InputStreamReader(template, StandardCharsets.UTF_8));
+                 Writer writer = new BufferedWriter(
+                         new OutputStreamWriter(new FileOutputStream(voteTxtFile), StandardCharsets.UTF_8))) {
+                replacer.replace(reader, writer);
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not write " + voteTxtFile, e);
+        }
+    }
+
+    /**
+     * Gets the digests of the artifacts from the <code>sha512.properties</code> in the {@link #workingDirectory},
+     * one <code>name=digest</code> line per artifact, in the order of the names.
+     *
+     * @return the digests, or <code>null</code> if there is no <code>sha512.properties</code>.
+     * @throws MojoExecutionException if the file cannot be read.
+     */
+    private String getDigestList() throws MojoExecutionException {
+        final File digestFile = new File(workingDirectory,
+                SharedFunctions.getDigestFileExtension(SiteArchiveFormat.DIGEST_ALGORITHM) + ".properties");
+        if (!digestFile.isFile()) {
+            getLog().warn(digestFile + " does not exist, run the detach-distributions goal first.");
+            return null;
+        }
+        final Properties digests = new Properties();
+        try (InputStream inputStream = new FileInputStream(digestFile)) {
+            digests.load(inputStream);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not read " + digestFile, e);
+        }
+        final StringBuilder list = new StringBuilder();
+        for (final String name : new TreeSet<>(digests.stringPropertyNames())) {
+            if (list.length() > 0) {
+                list.append('\n');
+            }
+            list.append(name).append('=').append(digests.getProperty(name));
+        }
+        return list.toString();
+    }
+
+    /**
+     * Gets the revision of the release candidate, as recorded by the {@link CommonsDistributionStagingMojo}, or
+     * from the dist server if it was staged by another build.
+     *
+     * @param dist the url of the release candidate in the dist repository.
+     * @return the revision, or <code>null</code> if it cannot be found.
+     * @throws MojoExecutionException if the recorded revision cannot be read.
+     */
+    private String getStagedRevision(final String dist) throws MojoExecutionException {
+        final File revisionFile = new File(workingDirectory, CommonsDistributionStagingMojo.STAGED_REVISION_FILE_NAME);
+        if (revisionFile.isFile()) {
+            try {
+                return FileUtils.readFileToString(revisionFile, StandardCharsets.UTF_8).trim();
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Could not read " + revisionFile, e);
+            }
+        }
+        try {
+            return SvnCommands.getRevision(getLog(), new SvnScmProviderRepository(dist),
+                    project.getBasedir());
+        } catch (final MojoExecutionException e) {
+            getLog().warn("Could not get the revision of " + dist + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets the Git commit of the tag of the release candidate.
+     *
+     * @param tag the name of the tag.
+     * @return the commit, or <code>null</code> if it cannot be found.
+     */
+    private String getTagCommit(final String tag) {
+        final Commandline commandLine = new Commandline();
+        commandLine.setExecutable("git");
+        commandLine.setWorkingDirectory(project.getBasedir());
+        commandLine.createArg().setValue("rev-list");
+        commandLine.createArg().setValue("-n");
+        commandLine.createArg().setValue("1");
+        commandLine.createArg().setValue(tag);
+        getLog().debug("Executing: " + commandLine);
+        try {
+            return SharedFunctions.executeCommandLine(commandLine, "Failed to find the Git tag " + tag).trim();
+        } catch (final MojoExecutionException e) {
+            getLog().warn(e.getMessage());
+            return null;
+        }
+    }
+}
@@ -16,12 +16,15 @@
  */
 package org.apache.commons.release.plugin.velocity;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import org.apache.velocity.Template;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.release.plugin.ParallelFileCopier;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
-import org.apache.velocity.runtime.RuntimeConstants;
-import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
 
 /**
  * This class' purpose is to generate the <code>HEADER.html</code> that moves along with the
@@ -32,10 +35,18 @@ import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
  */
 public class HeaderHtmlVelocityDelegate {
     /** The location of the velocity tempate for this class. */
-    private static final String TEMPLATE = "resources/org/apache/commons/release/plugin"
-                                         + "/velocity/HEADER.vm";
-    /** The private constructor to be used by the {@link HeaderHtmlVelocityDelegateBuilder}. */
-    private HeaderHtmlVelocityDelegate() {
+    static final String TEMPLATE = "resources/org/apache/commons/release/plugin"
+                                + "/velocity/HEADER.vm";
+    /** The classpath location of a template that replaces <code>HEADER.vm</code>, or <code>null</code>. */
+    private final String template;
+
+    /**
+     * The private constructor to be used by the {@link HeaderHtmlVelocityDelegateBuilder}.
+     *
+     * @param template sets the {@link HeaderHtmlVelocityDelegate#template}.
+     */
+    private HeaderHtmlVelocityDelegate(final String template) {
+        this.template = template;
     }
 
     /**
@@ -48,26 +59,46 @@ public class HeaderHtmlVelocityDelegate {
     }
 
     /**
-     * Builds the HEADER.vm velocity template to the writer passed in.
+     * Builds the HEADER.vm velocity template to the writer passed in. The template is compiled into Java at build
+     * time, and only a template set with {@link HeaderHtmlVelocityDelegateBuilder#withTemplate(String)} goes through
+     * the Velocity engine.
      *
      * @param writer any {@link Writer} that we wish to have the filled velocity template written to.
      * @return the {@link Writer} that we've filled out the template into.
+     * @throws UncheckedIOException if writing to the <code>writer</code> fails.
      */
     public Writer render(final Writer writer) {
-        final VelocityEngine ve = new VelocityEngine();
-        ve.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
-        ve.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-        ve.init();
-        final Template template = ve.getTemplate(TEMPLATE);
-        final VelocityContext context = new VelocityContext();
-        template.merge(context, writer);
+        if (template != null) {
+            VelocityTemplates.getTemplate(template).merge(new VelocityContext(), writer);
+            return writer;
+        }
+        try {
+            HeaderHtmlTemplate.render(Collections.emptyMap(), writer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return writer;
     }
 
+    /**
+     * Renders the <code>HEADER.vm</code> template once, into memory, and writes the result, encoded in UTF-8, to every
+     * one of the given files concurrently.
+     *
+     * @param copier the {@link ParallelFileCopier} that writes the files.
+     * @param files the {@link File}'s to write, for example the <code>HEADER.html</code> of several directories.
+     * @return the <code>files</code>, which are written once the copier is done.
+     * @since 1.8
+     */
+    public List<File> render(final ParallelFileCopier copier, final List<File> files) {
+        return VelocityTemplates.writeAll(render(new StringWriter()).toString(), copier, files);
+    }
+
     /**
      * A builder class for instantiation of the {@link HeaderHtmlVelocityDelegate}.
      */
     public static class HeaderHtmlVelocityDelegateBuilder {
+        /** The classpath location of a template that replaces <code>HEADER.vm</code>. */
+        private String template;
 
         /**
          * Private constructor so that we can have a proper builder pattern.
@@ -75,12 +106,24 @@ public class HeaderHtmlVelocityDelegate {
         private HeaderHtmlVelocityDelegateBuilder() {
         }
 
+        /**
+         * Replaces the <code>HEADER.vm</code> template with another one, which is rendered by the Velocity engine.
+         * The staging mojo sets it from its <code>headerTemplate</code> parameter.
+         * @param template the location of the template on the classpath.
+         * @return the builder to continue building.
+         * @since 1.8
+         */
+        public HeaderHtmlVelocityDelegateBuilder withTemplate(final String template) {
+            this.template = template;
+            return this;
+        }
+
         /**
          * Builds up the {@link ReadmeHtmlVelocityDelegate} from the previously set parameters.
          * @return a new {@link ReadmeHtmlVelocityDelegate}.
          */
         public HeaderHtmlVelocityDelegate build() {
-            return new HeaderHtmlVelocityDelegate();
+            return new HeaderHtmlVelocityDelegate(template);
         }
     }
 }
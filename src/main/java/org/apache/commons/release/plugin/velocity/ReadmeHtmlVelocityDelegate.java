@@ -16,13 +16,18 @@
  */
 package org.apache.commons.release.plugin.velocity;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.velocity.Template;
+import org.apache.commons.release.plugin.ParallelFileCopier;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
-import org.apache.velocity.runtime.RuntimeConstants;
-import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
 
 /**
  * This class' purpose is to generate the <code>README.html</code> that moves along with the
@@ -33,14 +38,18 @@ import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
  */
 public class ReadmeHtmlVelocityDelegate {
     /** The location of the velocity template for this class. */
-    private static final String TEMPLATE = "resources/org/apache/commons/release/plugin"
-                                         + "/velocity/README.vm";
+    static final String TEMPLATE = "resources/org/apache/commons/release/plugin"
+                                + "/velocity/README.vm";
+    /** Matches a non-empty string that terminates in a digit {0-9}, like the <code>lang3</code> of a short name. */
+    private static final Pattern ENDS_WITH_DIGIT = Pattern.compile(".+\\d$");
     /** This is supposed to represent the maven artifactId. */
     private final String artifactId;
     /** This is supposed to represent the maven version of the release. */
     private final String version;
     /** The url of the site that gets set into the <code>README.html</code>. */
     private final String siteUrl;
+    /** The classpath location of a template that replaces <code>README.vm</code>, or <code>null</code>. */
+    private final String template;
 
     /**
      * The private constructor to be used by the {@link ReadmeHtmlVelocityDelegateBuilder}.
@@ -48,11 +57,14 @@ public class ReadmeHtmlVelocityDelegate {
      * @param artifactId sets the {@link ReadmeHtmlVelocityDelegate#artifactId}.
      * @param version sets the {@link ReadmeHtmlVelocityDelegate#version}.
      * @param siteUrl sets the {@link ReadmeHtmlVelocityDelegate#siteUrl}.
+     * @param template sets the {@link ReadmeHtmlVelocityDelegate#template}.
      */
-    private ReadmeHtmlVelocityDelegate(final String artifactId, final String version, final String siteUrl) {
+    private ReadmeHtmlVelocityDelegate(final String artifactId, final String version, final String siteUrl,
+                                       final String template) {
         this.artifactId = artifactId;
         this.version = version;
         this.siteUrl = siteUrl;
+        this.template = template;
     }
 
     /**
@@ -66,17 +78,15 @@ public class ReadmeHtmlVelocityDelegate {
 
     /**
      * Renders the <code>README.vm</code> velocity template with the variables constructed with the
-     * {@link ReadmeHtmlVelocityDelegateBuilder}.
+     * {@link ReadmeHtmlVelocityDelegateBuilder}. The template is compiled into Java at build time, and only a
+     * template set with {@link ReadmeHtmlVelocityDelegateBuilder#withTemplate(String)} goes through the Velocity
+     * engine.
      *
      * @param writer is the {@link Writer} to which we wish to render the <code>README.vm</code> template.
      * @return a reference to the {@link Writer} passed in.
+     * @throws UncheckedIOException if writing to the <code>writer</code> fails.
      */
     public Writer render(final Writer writer) {
-        final VelocityEngine ve = new VelocityEngine();
-        ve.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
-        ve.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-        ve.init();
-        final Template template = ve.getTemplate(TEMPLATE);
         final String[] splitArtifactId = artifactId.split("-");
         final String wordCommons = "commons";
         String artifactShortName = "";
@@ -85,24 +95,44 @@ public class ReadmeHtmlVelocityDelegate {
         } else if (splitArtifactId.length == 1) {
             artifactShortName = splitArtifactId[0];
         }
-        // ".+\\d$" matches a non-empty string that terminates in a digit {0-9}.
-        if (artifactShortName.matches(".+\\d$")) {
+        if (ENDS_WITH_DIGIT.matcher(artifactShortName).matches()) {
             artifactShortName = artifactShortName.substring(0, artifactShortName.length() - 1);
         }
         final String artifactIdWithFirstLetterscapitalized =
                 StringUtils.capitalize(wordCommons)
                         + "-"
                         + artifactShortName.toUpperCase();
-        final VelocityContext context = new VelocityContext();
-        context.internalPut("artifactIdWithFirstLetterscapitalized", artifactIdWithFirstLetterscapitalized);
-        context.internalPut("artifactShortName", artifactShortName.toUpperCase());
-        context.internalPut("artifactId", artifactId);
-        context.internalPut("version", version);
-        context.internalPut("siteUrl", siteUrl);
-        template.merge(context, writer);
+        final Map<String, Object> context = new HashMap<>();
+        context.put("artifactIdWithFirstLetterscapitalized", artifactIdWithFirstLetterscapitalized);
+        context.put("artifactShortName", artifactShortName.toUpperCase());
+        context.put("artifactId", artifactId);
+        context.put("version", version);
+        context.put("siteUrl", siteUrl);
+        if (template != null) {
+            VelocityTemplates.getTemplate(template).merge(new VelocityContext(context), writer);
+            return writer;
+        }
+        try {
+            ReadmeHtmlTemplate.render(context, writer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return writer;
     }
 
+    /**
+     * Renders the <code>README.vm</code> template once, into memory, and writes the result, encoded in UTF-8, to every
+     * one of the given files concurrently.
+     *
+     * @param copier the {@link ParallelFileCopier} that writes the files.
+     * @param files the {@link File}'s to write, for example the <code>README.html</code> of several directories.
+     * @return the <code>files</code>, which are written once the copier is done.
+     * @since 1.8
+     */
+    public List<File> render(final ParallelFileCopier copier, final List<File> files) {
+        return VelocityTemplates.writeAll(render(new StringWriter()).toString(), copier, files);
+    }
+
     /**
      * A builder class for instantiation of the {@link ReadmeHtmlVelocityDelegate}.
      */
@@ -113,6 +143,8 @@ public class ReadmeHtmlVelocityDelegate {
         private String version;
         /** The site url to use in the <code>README.vm</code> template. */
         private String siteUrl;
+        /** The classpath location of a template that replaces <code>README.vm</code>. */
+        private String template;
 
         /**
          * Private constructor for using the builder through the {@link ReadmeHtmlVelocityDelegate#builder()}
@@ -151,12 +183,24 @@ public class ReadmeHtmlVelocityDelegate {
             return this;
         }
 
+        /**
+         * Replaces the <code>README.vm</code> template with another one, which is rendered by the Velocity engine.
+         * The staging mojo sets it from its <code>readmeTemplate</code> parameter.
+         * @param template the location of the template on the classpath.
+         * @return the builder to continue building.
+         * @since 1.8
+         */
+        public ReadmeHtmlVelocityDelegateBuilder withTemplate(final String template) {
+            this.template = template;
+            return this;
+        }
+
         /**
          * Builds up the {@link ReadmeHtmlVelocityDelegate} from the previously set parameters.
          * @return a new {@link ReadmeHtmlVelocityDelegate}.
          */
         public ReadmeHtmlVelocityDelegate build() {
-            return new ReadmeHtmlVelocityDelegate(this.artifactId, this.version, this.siteUrl);
+            return new ReadmeHtmlVelocityDelegate(this.artifactId, this.version, this.siteUrl, this.template);
         }
     }
 }
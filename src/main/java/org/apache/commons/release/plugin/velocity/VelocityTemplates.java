@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.velocity;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.release.plugin.ParallelFileCopier;
+import org.apache.velocity.Template;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
+
+/**
+ * Holds the {@link VelocityEngine} that renders the templates of this package, and the parsed {@link Template}'s.
+ * The engine is initialized once per class loader, on first use, and each template is parsed once, so rendering
+ * in every module of a large reactor, or in a long lived Maven daemon, does not pay for them again. A parsed
+ * {@link Template} can be merged by several threads at once, each with its own context.
+ *
+ * @since 1.8
+ */
+final class VelocityTemplates {
+
+    /** The templates parsed so far, by their location on the classpath. */
+    private static final ConcurrentMap<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * Holds the {@link VelocityEngine}, so that it is created when it is first needed, by the class loader that is
+     * thread safe by definition.
+     */
+    private static final class EngineHolder {
+
+        /** The engine, which loads the templates from the classpath. */
+        private static final VelocityEngine ENGINE = createEngine();
+
+        /** No instances. */
+        private EngineHolder() {
+        }
+    }
+
+    /** No instances. */
+    private VelocityTemplates() {
+    }
+
+    /**
+     * Gets the parsed {@link Template} at the given location, parsing it on the first call.
+     *
+     * @param location the location of the template on the classpath.
+     * @return the {@link Template}.
+     */
+    static Template getTemplate(final String location) {
+        return TEMPLATES.computeIfAbsent(location, EngineHolder.ENGINE::getTemplate);
+    }
+
+    /**
+     * Renders a <code>${name}</code> reference of a template the way Velocity does, for the renderers that are
+     * compiled from the templates at build time.
+     *
+     * @param context the values of the references, by name.
+     * @param name the name of the reference.
+     * @return the value of the reference, or the reference itself if it has no value.
+     */
+    static String reference(final Map<String, Object> context, final String name) {
+        final Object value = context.get(name);
+        return value == null ? "${" + name + "}" : value.toString();
+    }
+
+    /**
+     * Submits the writes of rendered content, encoded in UTF-8 once, to every one of the given files.
+     *
+     * @param content the rendered content.
+     * @param copier the {@link ParallelFileCopier} that writes the files.
+     * @param files the {@link File}'s to write.
+     * @return the <code>files</code>, which are written once the copier is done.
+     */
+    static List<File> writeAll(final String content, final ParallelFileCopier copier, final List<File> files) {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        for (final File file : files) {
+            copier.writeFile(bytes, file);
+        }
+        return files;
+    }
+
+    /**
+     * Creates and initializes the {@link VelocityEngine}.
+     *
+     * @return the engine, loading the templates from the classpath.
+     */
+    private static VelocityEngine createEngine() {
+        final VelocityEngine engine = new VelocityEngine();
+        engine.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
+        engine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
+        engine.init();
+        return engine;
+    }
+}
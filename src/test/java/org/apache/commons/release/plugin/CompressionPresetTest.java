@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.junit.Test;
+
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link CompressionPreset}.
+ */
+public class CompressionPresetTest {
+
+    @Test
+    public void testFromName() {
+        assertEquals(CompressionPreset.FASTEST, CompressionPreset.fromName(" Fastest "));
+        assertEquals(CompressionPreset.BALANCED, CompressionPreset.fromName("balanced"));
+        assertEquals(CompressionPreset.SMALLEST, CompressionPreset.fromName("SMALLEST"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnknownName() {
+        CompressionPreset.fromName("quickest");
+    }
+
+    @Test
+    public void testLevels() {
+        assertEquals(Deflater.BEST_SPEED, CompressionPreset.FASTEST.getLevel());
+        assertEquals(Deflater.DEFAULT_COMPRESSION, CompressionPreset.BALANCED.getLevel());
+        assertEquals(Deflater.BEST_COMPRESSION, CompressionPreset.SMALLEST.getLevel());
+    }
+
+    @Test
+    public void testStrategies() {
+        assertEquals(Deflater.DEFAULT_STRATEGY, CompressionPreset.getStrategy("default"));
+        assertEquals(Deflater.FILTERED, CompressionPreset.getStrategy("Filtered"));
+        assertEquals(Deflater.HUFFMAN_ONLY, CompressionPreset.getStrategy("huffman"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() {
+        CompressionPreset.getStrategy("rle");
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DigestCache}.
+ */
+public class DigestCacheTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-digest-cache";
+
+    private static final List<String> ALGORITHMS = Arrays.asList("SHA-256", "SHA-512");
+
+    private static final String[] DIGESTS = {"aaaa", "bbbb"};
+
+    private File cacheFile;
+
+    private File artifact;
+
+    @Before
+    public void setUp() throws Exception {
+        final File testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+        cacheFile = new File(testingDirectory, "cache/digest-cache.properties");
+        artifact = new File(testingDirectory, "artifact.zip");
+        FileUtils.fileWrite(artifact, "content");
+    }
+
+    @Test
+    public void testHitAfterReload() throws Exception {
+        final DigestCache digestCache = DigestCache.load(cacheFile);
+        assertNull(digestCache.get(artifact, ALGORITHMS));
+        digestCache.put(artifact, ALGORITHMS, DIGESTS);
+        digestCache.store();
+        assertTrue(cacheFile.exists());
+        final DigestCache reloaded = DigestCache.load(cacheFile);
+        assertArrayEquals(DIGESTS, reloaded.get(artifact, ALGORITHMS));
+        assertEquals(1, reloaded.getHits());
+        assertEquals(0, reloaded.getMisses());
+    }
+
+    @Test
+    public void testMissForChangedFile() throws Exception {
+        final DigestCache digestCache = DigestCache.load(cacheFile);
+        digestCache.put(artifact, ALGORITHMS, DIGESTS);
+        FileUtils.fileWrite(artifact, "changed content");
+        assertNull(digestCache.get(artifact, ALGORITHMS));
+        assertEquals(0, digestCache.getHits());
+        assertEquals(1, digestCache.getMisses());
+    }
+
+    @Test
+    public void testMissForOtherAlgorithm() throws Exception {
+        final DigestCache digestCache = DigestCache.load(cacheFile);
+        digestCache.put(artifact, ALGORITHMS, DIGESTS);
+        assertNull(digestCache.get(artifact, Arrays.asList("SHA-512", "SHA-1")));
+        assertArrayEquals(new String[] {"bbbb"}, digestCache.get(artifact, Arrays.asList("SHA-512")));
+    }
+
+    @Test
+    public void testStoreMergesConcurrentCaches() throws Exception {
+        final File otherArtifact = new File(TEST_DIR_PATH, "other-artifact.zip");
+        FileUtils.fileWrite(otherArtifact, "other content");
+        final DigestCache digestCache = DigestCache.load(cacheFile);
+        final DigestCache otherDigestCache = DigestCache.load(cacheFile);
+        digestCache.put(artifact, ALGORITHMS, DIGESTS);
+        otherDigestCache.put(otherArtifact, ALGORITHMS, new String[] {"cccc", "dddd"});
+        digestCache.store();
+        otherDigestCache.store();
+        final DigestCache reloaded = DigestCache.load(cacheFile);
+        assertArrayEquals(DIGESTS, reloaded.get(artifact, ALGORITHMS));
+        assertArrayEquals(new String[] {"cccc", "dddd"}, reloaded.get(otherArtifact, ALGORITHMS));
+    }
+
+    @Test
+    public void testStorePrunesDeletedFiles() throws Exception {
+        final DigestCache digestCache = DigestCache.load(cacheFile);
+        digestCache.put(artifact, ALGORITHMS, DIGESTS);
+        digestCache.store();
+        assertTrue(artifact.delete());
+        DigestCache.load(cacheFile).store();
+        assertFalse(FileUtils.fileRead(cacheFile).contains("artifact.zip"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link DigestMode}.
+ */
+public class DigestModeTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-digest-mode";
+
+    private File testingDirectory;
+
+    private File artifact;
+
+    private byte[] content;
+
+    @Before
+    public void setUp() throws Exception {
+        testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+        // larger than the direct buffer, and not a multiple of it
+        content = new byte[3 * 1024 * 1024 + 17];
+        new Random(0).nextBytes(content);
+        artifact = new File(testingDirectory, "artifact.zip");
+        FileUtils.writeByteArrayToFile(artifact, content);
+    }
+
+    @Test
+    public void testDigest() throws Exception {
+        for (final DigestMode digestMode : DigestMode.values()) {
+            final MessageDigest sha256 = DigestUtils.getSha256Digest();
+            final MessageDigest sha512 = DigestUtils.getSha512Digest();
+            digestMode.digest(artifact, sha256, sha512);
+            assertEquals(digestMode.name(), DigestUtils.sha256Hex(content), Hex.encodeHexString(sha256.digest()));
+            assertEquals(digestMode.name(), DigestUtils.sha512Hex(content), Hex.encodeHexString(sha512.digest()));
+        }
+    }
+
+    @Test
+    public void testCopyAndDigest() throws Exception {
+        for (final DigestMode digestMode : DigestMode.values()) {
+            final File copy = new File(testingDirectory, digestMode.name() + ".zip");
+            final MessageDigest sha512 = DigestUtils.getSha512Digest();
+            digestMode.copyAndDigest(artifact, copy, sha512);
+            assertEquals(digestMode.name(), DigestUtils.sha512Hex(content), Hex.encodeHexString(sha512.digest()));
+            assertArrayEquals(digestMode.name(), content, FileUtils.readFileToByteArray(copy));
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        final File empty = new File(testingDirectory, "empty.zip");
+        FileUtils.touch(empty);
+        for (final DigestMode digestMode : DigestMode.values()) {
+            final MessageDigest sha512 = DigestUtils.getSha512Digest();
+            digestMode.digest(empty, sha512);
+            assertEquals(digestMode.name(), DigestUtils.sha512Hex(new byte[0]), Hex.encodeHexString(sha512.digest()));
+        }
+    }
+
+    @Test
+    public void testFromName() {
+        assertEquals(DigestMode.MMAP, DigestMode.fromName(" mmap "));
+        assertEquals(DigestMode.CHANNEL, DigestMode.fromName("Channel"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnknownName() {
+        DigestMode.fromName("carrier-pigeon");
+    }
+}
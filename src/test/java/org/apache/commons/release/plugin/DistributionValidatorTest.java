@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.release.plugin.stubs.RepositoryServerStub;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DistributionValidator}.
+ */
+public class DistributionValidatorTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-distribution-validator";
+
+    private File repository;
+
+    private File distDirectory;
+
+    private File digestDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        final File testingDirectory = new File(TEST_DIR_PATH);
+        FileUtils.deleteQuietly(testingDirectory);
+        repository = new File(testingDirectory, "repository");
+        distDirectory = new File(testingDirectory, "scm/1.0-RC1");
+        digestDirectory = new File(testingDirectory, "digests");
+        repository.mkdirs();
+        addArtifact("commons-text-1.0.jar", "jar content");
+        addArtifact("commons-text-1.0.pom", "<project/>");
+        addArtifact("commons-text-1.0-src.zip", "source zip content");
+        addArtifact("commons-text-1.0-bin.tar.gz", "binary tar content");
+        stage("source/commons-text-1.0-src.zip", "source zip content");
+        stage("binaries/commons-text-1.0-bin.tar.gz", "binary tar content");
+    }
+
+    @Test
+    public void testParseIndex() throws Exception {
+        final String html = "<a href=\"../\">Parent</a>"
+                + "<a href=\"http://host/repo/a.jar\">a.jar</a>"
+                + "<A HREF='a.jar.sha1'>a.jar.sha1</A>"
+                + "<a href=\"sub/\">sub</a>"
+                + "<a href=\"http://other/repo/b.jar\">b.jar</a>"
+                + "<a href=\"http://host/repo/a.jar\">again</a>";
+        assertEquals(Arrays.asList("a.jar", "a.jar.sha1"),
+                DistributionValidator.parseIndex(html, "http://host/repo/"));
+    }
+
+    @Test
+    public void testParseChecksum() {
+        assertEquals("abcd", DistributionValidator.parseChecksum("ABCD\r\n"));
+        assertEquals("abcd", DistributionValidator.parseChecksum("abcd  commons-text-1.0.jar\n"));
+        assertEquals("", DistributionValidator.parseChecksum(" \n"));
+    }
+
+    @Test
+    public void testValidDistributions() throws Exception {
+        assertEquals(0, validate().size());
+    }
+
+    @Test
+    public void testRelativeLinks() throws Exception {
+        try (RepositoryServerStub server = new RepositoryServerStub(repository, true);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            assertEquals(0, validator.validate(server.getUrl(), distDirectory).size());
+            assertTrue(server.getDownloads().contains("commons-text-1.0-src.zip"));
+        }
+    }
+
+    @Test
+    public void testSignatureChecksumsAreNotRead() throws Exception {
+        FileUtils.write(new File(repository, "commons-text-1.0.jar.asc.sha1"), "0000", StandardCharsets.UTF_8);
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            assertEquals(0, validator.validate(server.getUrl(), distDirectory).size());
+            assertFalse(server.getDownloads().contains("commons-text-1.0.jar.asc.sha1"));
+        }
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        FileUtils.write(new File(repository, "commons-text-1.0.jar.sha1"), "0000", StandardCharsets.UTF_8);
+        final List<String> problems = validate();
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).startsWith("commons-text-1.0.jar failed SHA-1 check"));
+    }
+
+    @Test
+    public void testStagedFileMismatch() throws Exception {
+        FileUtils.write(new File(distDirectory, "source/commons-text-1.0-src.zip"), "another source zip",
+                StandardCharsets.UTF_8);
+        final List<String> problems = validate();
+        assertEquals(2, problems.size());
+        assertTrue(problems.get(0).startsWith("commons-text-1.0-src.zip differs from the staged file"));
+        assertTrue(problems.get(1).startsWith("Staged commons-text-1.0-src.zip failed SHA-512 check"));
+    }
+
+    @Test
+    public void testMissingSignatureAndChecksums() throws Exception {
+        FileUtils.write(new File(repository, "commons-text-1.0-tests.jar"), "tests", StandardCharsets.UTF_8);
+        final List<String> problems = validate();
+        assertEquals(Arrays.asList("commons-text-1.0-tests.jar has no checksum to validate it against",
+                "commons-text-1.0-tests.jar has no asc signature"), problems);
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testMissingArtifact() throws Exception {
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            validator.validate(server.getUrl() + "missing/", distDirectory);
+        }
+    }
+
+    @Test
+    public void testChecksumsMatch() throws Exception {
+        addSha512("commons-text-1.0-src.zip", "source zip content");
+        writeDigests("sha512", "commons-text-1.0-src.zip", DigestUtils.sha512Hex("source zip content"));
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            assertEquals(0, validator.validateChecksums(server.getUrl(), digestDirectory).size());
+            assertTrue(server.getDownloads().contains("commons-text-1.0-src.zip.sha512"));
+            assertFalse(server.getDownloads().contains("commons-text-1.0-src.zip"));
+        }
+    }
+
+    @Test
+    public void testChecksumHeaderMatches() throws Exception {
+        writeDigests("sha512", "commons-text-1.0-src.zip", DigestUtils.sha512Hex("source zip content"));
+        writeDigests("sha1", "commons-text-1.0-src.zip", DigestUtils.sha1Hex("source zip content"));
+        FileUtils.deleteQuietly(new File(repository, "commons-text-1.0-src.zip.sha1"));
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            assertEquals(0, validator.validateChecksums(server.getUrl(), digestDirectory).size());
+            assertFalse(server.getDownloads().contains("commons-text-1.0-src.zip"));
+        }
+    }
+
+    @Test
+    public void testChecksumFileIsWrong() throws Exception {
+        addSha512("commons-text-1.0-src.zip", "another source zip");
+        writeDigests("sha512", "commons-text-1.0-src.zip", DigestUtils.sha512Hex("source zip content"));
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            assertEquals(Arrays.asList("commons-text-1.0-src.zip matches the local artifact, but its .sha512 file "
+                    + "does not"), validator.validateChecksums(server.getUrl(), digestDirectory));
+            assertTrue(server.getDownloads().contains("commons-text-1.0-src.zip"));
+        }
+    }
+
+    @Test
+    public void testArtifactDiffersFromLocalDigest() throws Exception {
+        addSha512("commons-text-1.0-src.zip", "source zip content");
+        writeDigests("sha512", "commons-text-1.0-src.zip", DigestUtils.sha512Hex("another source zip"));
+        final List<String> problems = validateChecksums();
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).startsWith("commons-text-1.0-src.zip differs from the local artifact"));
+    }
+
+    @Test
+    public void testArtifactNotInRepository() throws Exception {
+        writeDigests("sha512", "commons-text-1.0-tests.jar", DigestUtils.sha512Hex("tests"));
+        assertEquals(Arrays.asList("commons-text-1.0-tests.jar is not in the repository"), validateChecksums());
+    }
+
+    @Test
+    public void testChecksumsNeedSignature() throws Exception {
+        addSha512("commons-text-1.0-src.zip", "source zip content");
+        writeDigests("sha512", "commons-text-1.0-src.zip", DigestUtils.sha512Hex("source zip content"));
+        FileUtils.deleteQuietly(new File(repository, "commons-text-1.0-src.zip.asc"));
+        assertEquals(Arrays.asList("commons-text-1.0-src.zip has no asc signature"), validateChecksums());
+    }
+
+    @Test
+    public void testChecksumsValidateArtifactsWithoutLocalDigest() throws Exception {
+        addSha512("commons-text-1.0-src.zip", "source zip content");
+        writeDigests("sha512", "commons-text-1.0-src.zip", DigestUtils.sha512Hex("source zip content"));
+        FileUtils.write(new File(repository, "commons-text-1.0.jar.sha1"), "0000", StandardCharsets.UTF_8);
+        FileUtils.write(new File(repository, "commons-text-1.0-tests.jar"), "tests", StandardCharsets.UTF_8);
+        final List<String> problems = validateChecksums();
+        assertEquals(3, problems.size());
+        assertTrue(problems.get(0).startsWith("commons-text-1.0-tests.jar has no asc signature"));
+        assertTrue(problems.get(1).startsWith("commons-text-1.0-tests.jar has no checksum to validate it against"));
+        assertTrue(problems.get(2).startsWith("commons-text-1.0.jar failed SHA-1 check"));
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testChecksumsNeedLocalDigests() throws Exception {
+        validateChecksums();
+    }
+
+    private List<String> validateChecksums() throws Exception {
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            return validator.validateChecksums(server.getUrl(), digestDirectory);
+        }
+    }
+
+    private List<String> validate() throws Exception {
+        try (RepositoryServerStub server = new RepositoryServerStub(repository);
+             DistributionValidator validator = new DistributionValidator(new SystemStreamLog(), 2)) {
+            return validator.validate(server.getUrl(), distDirectory);
+        }
+    }
+
+    private void addArtifact(final String name, final String content) throws Exception {
+        FileUtils.write(new File(repository, name), content, StandardCharsets.UTF_8);
+        FileUtils.write(new File(repository, name + ".asc"), "signature", StandardCharsets.UTF_8);
+        FileUtils.write(new File(repository, name + ".md5"), DigestUtils.md5Hex(content), StandardCharsets.UTF_8);
+        FileUtils.write(new File(repository, name + ".sha1"), DigestUtils.sha1Hex(content) + "\r\n",
+                StandardCharsets.UTF_8);
+    }
+
+    private void addSha512(final String name, final String content) throws Exception {
+        FileUtils.write(new File(repository, name + ".sha512"), DigestUtils.sha512Hex(content),
+                StandardCharsets.UTF_8);
+    }
+
+    private void writeDigests(final String extension, final String name, final String digest) throws Exception {
+        FileUtils.write(new File(digestDirectory, extension + ".properties"), name + "=" + digest + "\n",
+                StandardCharsets.UTF_8, true);
+    }
+
+    private void stage(final String path, final String content) throws Exception {
+        final File file = new File(distDirectory, path);
+        FileUtils.write(file, content, StandardCharsets.UTF_8);
+        FileUtils.write(new File(file.getPath() + ".sha512"), DigestUtils.sha512Hex(content),
+                StandardCharsets.UTF_8);
+    }
+}
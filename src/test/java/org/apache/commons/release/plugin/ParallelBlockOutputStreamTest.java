@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@link ParallelBlockOutputStream} and {@link SiteArchiveFormat}.
+ */
+public class ParallelBlockOutputStreamTest {
+
+    private static byte[] newContent() {
+        final byte[] content = new byte[100 * 1024];
+        final Random random = new Random(0);
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(4));
+        }
+        return content;
+    }
+
+    @Test
+    public void testBlocksAreConcatenatedInOrder() throws Exception {
+        final byte[] content = newContent();
+        final UnsynchronizedByteArrayOutputStream compressed = new UnsynchronizedByteArrayOutputStream();
+        try (OutputStream out = new ParallelBlockOutputStream(compressed, 3, 4096, (block, blockOut) -> {
+            try (GzipCompressorOutputStream gzip = new GzipCompressorOutputStream(blockOut)) {
+                gzip.write(block);
+            }
+        })) {
+            out.write(content, 0, 10);
+            out.write(content[10]);
+            out.write(content, 11, content.length - 11);
+        }
+        try (GzipCompressorInputStream gzip = new GzipCompressorInputStream(compressed.toInputStream(), true)) {
+            assertArrayEquals(content, IOUtils.toByteArray(gzip));
+        }
+    }
+
+    @Test
+    public void testEmptyStreamIsValid() throws Exception {
+        final UnsynchronizedByteArrayOutputStream compressed = new UnsynchronizedByteArrayOutputStream();
+        SiteArchiveFormat.TAR_GZ.getTarCompressor().newCompressorOutputStream(compressed, 2, Deflater.BEST_SPEED)
+                .close();
+        try (GzipCompressorInputStream gzip = new GzipCompressorInputStream(compressed.toInputStream(), true)) {
+            assertEquals(0, IOUtils.toByteArray(gzip).length);
+        }
+    }
+
+    @Test
+    public void testXz() throws Exception {
+        final byte[] content = newContent();
+        final UnsynchronizedByteArrayOutputStream compressed = new UnsynchronizedByteArrayOutputStream();
+        try (OutputStream out = SiteArchiveFormat.TAR_XZ.getTarCompressor().newCompressorOutputStream(compressed, 2,
+                Deflater.BEST_SPEED)) {
+            IOUtils.copy(new ByteArrayInputStream(content), out);
+        }
+        try (XZCompressorInputStream xz = new XZCompressorInputStream(compressed.toInputStream(), true)) {
+            assertArrayEquals(content, IOUtils.toByteArray(xz));
+        }
+    }
+
+    @Test
+    public void testFormatFromName() {
+        assertEquals(SiteArchiveFormat.ZIP, SiteArchiveFormat.fromName("zip"));
+        assertEquals(SiteArchiveFormat.TAR_GZ, SiteArchiveFormat.fromName(" TAR.GZ "));
+        assertEquals(SiteArchiveFormat.TAR_XZ, SiteArchiveFormat.fromName("tar.xz"));
+    }
+
+    @Test
+    public void testOnlyTarFormatsHaveACompressor() {
+        assertNull(SiteArchiveFormat.ZIP.getTarCompressor());
+        assertNotNull(SiteArchiveFormat.TAR_GZ.getTarCompressor());
+        assertNotNull(SiteArchiveFormat.TAR_XZ.getTarCompressor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFormat() {
+        SiteArchiveFormat.fromName("tar.zst");
+    }
+}
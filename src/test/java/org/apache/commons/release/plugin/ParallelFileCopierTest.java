@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ParallelFileCopier}.
+ */
+public class ParallelFileCopierTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-parallel-file-copier";
+
+    private File testingDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+    }
+
+    @Test
+    public void testCopyDirectory() throws Exception {
+        final File site = new File(testingDirectory, "site");
+        for (int i = 0; i < 50; i++) {
+            FileUtils.write(new File(site, "apidocs/package" + i % 5 + "/Class" + i + ".html"), "class " + i,
+                    StandardCharsets.UTF_8);
+        }
+        FileUtils.write(new File(site, "index.html"), "index", StandardCharsets.UTF_8);
+        new File(site, "empty").mkdirs();
+        final File copy = new File(testingDirectory, "scm/site");
+        try (ParallelFileCopier copier = new ParallelFileCopier(new SystemStreamLog(), 4)) {
+            final List<File> copies = copier.copyDirectory(site, copy);
+            copier.await();
+            assertEquals(51, copies.size());
+            for (final File file : copies) {
+                assertTrue(file.isFile());
+            }
+        }
+        assertEquals("class 42", FileUtils.readFileToString(new File(copy, "apidocs/package2/Class42.html"),
+                StandardCharsets.UTF_8));
+        assertEquals("index", FileUtils.readFileToString(new File(copy, "index.html"), StandardCharsets.UTF_8));
+        assertTrue(new File(copy, "empty").isDirectory());
+    }
+
+    @Test
+    public void testCopyFileReplacesExisting() throws Exception {
+        final File from = new File(testingDirectory, "from.txt");
+        final File to = new File(testingDirectory, "nested/to.txt");
+        FileUtils.write(from, "new", StandardCharsets.UTF_8);
+        FileUtils.write(to, "old", StandardCharsets.UTF_8);
+        try (ParallelFileCopier copier = new ParallelFileCopier(new SystemStreamLog(), null)) {
+            copier.copyFile(from, to);
+            copier.await();
+        }
+        assertEquals("new", FileUtils.readFileToString(to, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteFileToSeveralFiles() throws Exception {
+        final byte[] content = "rendered".getBytes(StandardCharsets.UTF_8);
+        final List<File> files = Arrays.asList(new File(testingDirectory, "HEADER.html"),
+                new File(testingDirectory, "source/HEADER.html"), new File(testingDirectory, "binaries/HEADER.html"));
+        FileUtils.write(files.get(0), "old", StandardCharsets.UTF_8);
+        try (ParallelFileCopier copier = new ParallelFileCopier(new SystemStreamLog(), 2)) {
+            for (final File file : files) {
+                copier.writeFile(content, file);
+            }
+            copier.await();
+        }
+        for (final File file : files) {
+            assertEquals("rendered", FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testMissingFileFails() throws Exception {
+        try (ParallelFileCopier copier = new ParallelFileCopier(new SystemStreamLog(), 2)) {
+            copier.copyFile(new File(testingDirectory, "missing.txt"), new File(testingDirectory, "copy.txt"));
+            copier.await();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for {@link ParallelZipCreator}.
+ */
+public class ParallelZipCreatorTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-parallel-zip-creator";
+
+    private static final int FILE_COUNT = 50;
+
+    private File testingDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+    }
+
+    @Test
+    public void testEntriesAreWrittenInOrder() throws Exception {
+        final File zip = new File(testingDirectory, "test.zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(zip);
+                ParallelZipCreator creator = new ParallelZipCreator(zos, 2, Deflater.BEST_SPEED,
+                        Deflater.DEFAULT_STRATEGY, new StoredEntryRules(null, false))) {
+            for (int i = 0; i < FILE_COUNT; i++) {
+                final File file = new File(testingDirectory, "page" + i + ".html");
+                FileUtils.write(file, "<p>page " + i + "</p>", StandardCharsets.UTF_8);
+                creator.addFile("pages/" + file.getName(), file);
+            }
+            creator.finish();
+        }
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            for (int i = 0; i < FILE_COUNT; i++) {
+                final ZipEntry entry = entries.nextElement();
+                assertEquals("pages/page" + i + ".html", entry.getName());
+                assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    assertEquals("<p>page " + i + "</p>", IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+                }
+            }
+            assertFalse(entries.hasMoreElements());
+        }
+    }
+
+    @Test
+    public void testFilesLargerThanTheMemoryLimitAreWrittenDirectly() throws Exception {
+        final File zip = new File(testingDirectory, "test.zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(zip);
+                ParallelZipCreator creator = new ParallelZipCreator(zos, 2, Deflater.BEST_SPEED,
+                        Deflater.DEFAULT_STRATEGY, new StoredEntryRules(null, false))) {
+            creator.setMemoryLimit(20);
+            for (int i = 0; i < FILE_COUNT; i++) {
+                final File file = new File(testingDirectory, "page" + i + (i % 2 == 0 ? ".html" : ".png"));
+                // the odd files are larger than the memory limit
+                FileUtils.write(file, (i % 2 == 0 ? "<p>" : "<p>a larger page ") + i + "</p>", StandardCharsets.UTF_8);
+                creator.addFile(file.getName(), file);
+            }
+            creator.finish();
+        }
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            for (int i = 0; i < FILE_COUNT; i++) {
+                final ZipEntry entry = entries.nextElement();
+                assertEquals("page" + i + (i % 2 == 0 ? ".html" : ".png"), entry.getName());
+                assertEquals(i % 2 == 0 ? ZipEntry.DEFLATED : ZipEntry.STORED, entry.getMethod());
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    assertEquals((i % 2 == 0 ? "<p>" : "<p>a larger page ") + i + "</p>",
+                            IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+                }
+            }
+            assertFalse(entries.hasMoreElements());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RetentionPolicy}.
+ */
+public class RetentionPolicyTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-01T00:00:00Z");
+
+    private final List<SvnListEntry> entries = Arrays.asList(
+            directory("1.3-RC1", 100, 200),
+            file("1.3-RC1/site.zip", 1000, 100, 200),
+            directory("1.4-RC1", 300, 20),
+            file("1.4-RC1/site.zip", 2000, 300, 20),
+            file("1.4-RC1/binaries/foo-1.4-bin.tar.gz", 500, 300, 20),
+            directory("1.4-RC2", 400, 5),
+            file("1.4-RC2/site.zip", 3000, 400, 5),
+            file("README.html", 10, 50, 300));
+
+    @Test
+    public void testNoRulesDeletesEverything() {
+        final RetentionPolicy policy = new RetentionPolicy(null, null, null);
+        assertFalse(policy.hasRules());
+        assertEquals(Arrays.asList("1.3-RC1", "1.4-RC1", "1.4-RC2", "README.html"), deleted(policy));
+    }
+
+    @Test
+    public void testKeepLatest() {
+        final RetentionPolicy policy = new RetentionPolicy(2, null, null);
+        assertTrue(policy.hasRules());
+        assertEquals(Arrays.asList("1.3-RC1", "README.html"), deleted(policy));
+        assertEquals(Collections.singletonList("README.html"), deleted(new RetentionPolicy(10, null, null)));
+    }
+
+    @Test
+    public void testKeepLatestCountsOnlyReleaseCandidates() {
+        // a staging commit adds the release candidate and the root files in the same revision
+        final List<SvnListEntry> staged = Arrays.asList(
+                directory("1.3-RC1", 100, 200),
+                file("1.3-RC1/site.zip", 1000, 100, 200),
+                file("RELEASE-NOTES-1.3.txt", 10, 100, 200),
+                directory("1.4-RC1", 300, 20),
+                file("1.4-RC1/site.zip", 2000, 300, 20),
+                directory("1.4-RC2", 400, 5),
+                file("1.4-RC2/site.zip", 3000, 400, 5),
+                file("README.html", 10, 400, 5),
+                file("HEADER.html", 10, 400, 5),
+                file("RELEASE-NOTES.txt", 10, 400, 5),
+                file("site.zip", 3000, 400, 5),
+                directory("site", 400, 5),
+                file("site/index.html", 10, 400, 5));
+        assertEquals(Arrays.asList("1.3-RC1", "RELEASE-NOTES-1.3.txt"),
+                deleted(new RetentionPolicy(2, null, null), staged));
+        assertEquals(Arrays.asList("1.3-RC1", "RELEASE-NOTES-1.3.txt", "1.4-RC1"),
+                deleted(new RetentionPolicy(1, null, null), staged));
+        assertEquals(Arrays.asList("1.3-RC1", "RELEASE-NOTES-1.3.txt", "1.4-RC1", "1.4-RC2", "README.html",
+                "HEADER.html", "RELEASE-NOTES.txt", "site.zip", "site"), deleted(new RetentionPolicy(0, null, null),
+                staged));
+    }
+
+    @Test
+    public void testKeepPattern() {
+        assertEquals(Arrays.asList("1.3-RC1", "1.4-RC1", "1.4-RC2"),
+                deleted(new RetentionPolicy(null, "README\\..*", null)));
+        assertEquals(Collections.singletonList("README.html"), deleted(new RetentionPolicy(null, "1\\..*", null)));
+    }
+
+    @Test
+    public void testMaxAge() {
+        assertEquals(Arrays.asList("1.3-RC1", "README.html"), deleted(new RetentionPolicy(null, null, 30)));
+        assertEquals(Arrays.asList("1.3-RC1", "1.4-RC1", "1.4-RC2", "README.html"),
+                deleted(new RetentionPolicy(null, null, 0)));
+    }
+
+    @Test
+    public void testRulesCombine() {
+        assertEquals(Collections.singletonList("1.3-RC1"), deleted(new RetentionPolicy(1, "README\\..*", 30)));
+    }
+
+    @Test
+    public void testReclaimedSize() {
+        final RetentionPolicy policy = new RetentionPolicy(1, null, null);
+        assertEquals(1000 + 2000 + 500 + 10,
+                RetentionPolicy.getSize(entries, policy.selectForDeletion(entries, NOW)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLatest() {
+        new RetentionPolicy(-1, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPattern() {
+        new RetentionPolicy(null, "1.4-RC(", null);
+    }
+
+    private List<String> deleted(final RetentionPolicy policy) {
+        return deleted(policy, entries);
+    }
+
+    private static List<String> deleted(final RetentionPolicy policy, final List<SvnListEntry> listing) {
+        final List<String> names = new ArrayList<>();
+        for (final SvnListEntry entry : policy.selectForDeletion(listing, NOW)) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    private static SvnListEntry directory(final String name, final long revision, final int ageDays) {
+        return new SvnListEntry(name, true, 0, revision, NOW.minus(Duration.ofDays(ageDays)));
+    }
+
+    private static SvnListEntry file(final String name, final long size, final long revision, final int ageDays) {
+        return new SvnListEntry(name, false, size, revision, NOW.minus(Duration.ofDays(ageDays)));
+    }
+}
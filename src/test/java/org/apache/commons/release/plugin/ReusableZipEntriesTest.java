@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@link ReusableZipEntries}.
+ */
+public class ReusableZipEntriesTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-reusable-zip-entries";
+
+    private static final String COMMENT = ReusableZipEntries.getComment(Deflater.DEFAULT_COMPRESSION,
+            Deflater.DEFAULT_STRATEGY);
+
+    private File testingDirectory;
+
+    private File indexHtml;
+
+    private File previousZip;
+
+    @Before
+    public void setUp() throws Exception {
+        testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+        indexHtml = new File(testingDirectory, "index.html");
+        FileUtils.write(indexHtml, StringUtils.repeat("<p>mock body</p>\n", 1000), StandardCharsets.UTF_8);
+        previousZip = new File(testingDirectory, "site.zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(previousZip);
+                ParallelZipCreator creator = new ParallelZipCreator(zos, 2, Deflater.DEFAULT_COMPRESSION,
+                        Deflater.DEFAULT_STRATEGY, new StoredEntryRules(null, false))) {
+            zos.setComment(COMMENT);
+            creator.addFile("index.html", indexHtml);
+            creator.finish();
+        }
+    }
+
+    @Test
+    public void testUnchangedFileIsReused() throws Exception {
+        try (ReusableZipEntries entries = new ReusableZipEntries(previousZip, COMMENT)) {
+            assertNotNull(entries.findUnchanged("index.html", indexHtml, false));
+            assertNull(entries.findUnchanged("index.html", indexHtml, true));
+            assertNull(entries.findUnchanged("other.html", indexHtml, false));
+            assertEquals(1, entries.getReusedCount());
+        }
+    }
+
+    @Test
+    public void testTouchedFileWithSameContentIsReused() throws Exception {
+        indexHtml.setLastModified(indexHtml.lastModified() - 60000);
+        try (ReusableZipEntries entries = new ReusableZipEntries(previousZip, COMMENT)) {
+            assertNotNull(entries.findUnchanged("index.html", indexHtml, false));
+        }
+    }
+
+    @Test
+    public void testChangedFileIsNotReused() throws Exception {
+        FileUtils.write(indexHtml, StringUtils.repeat("<p>mock tail</p>\n", 1000), StandardCharsets.UTF_8);
+        indexHtml.setLastModified(indexHtml.lastModified() - 60000);
+        try (ReusableZipEntries entries = new ReusableZipEntries(previousZip, COMMENT)) {
+            assertNull(entries.findUnchanged("index.html", indexHtml, false));
+        }
+    }
+
+    @Test
+    public void testOtherCompressionIsNotReused() throws Exception {
+        try (ReusableZipEntries entries = new ReusableZipEntries(previousZip,
+                ReusableZipEntries.getComment(Deflater.BEST_COMPRESSION, Deflater.DEFAULT_STRATEGY))) {
+            assertNull(entries.findUnchanged("index.html", indexHtml, false));
+        }
+    }
+
+    @Test
+    public void testMissingPreviousZip() throws Exception {
+        try (ReusableZipEntries entries = new ReusableZipEntries(new File(testingDirectory, "missing.zip"),
+                COMMENT)) {
+            assertNull(entries.findUnchanged("index.html", indexHtml, false));
+        }
+    }
+}
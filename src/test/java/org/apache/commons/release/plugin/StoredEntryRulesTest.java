@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link StoredEntryRules}.
+ */
+public class StoredEntryRulesTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-stored-entry-rules";
+
+    private File testingDirectory;
+
+    private File randomBin;
+
+    private File repetitiveHtml;
+
+    @Before
+    public void setUp() throws Exception {
+        testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+        final byte[] random = new byte[100 * 1024];
+        new Random(0).nextBytes(random);
+        randomBin = new File(testingDirectory, "random.bin");
+        FileUtils.writeByteArrayToFile(randomBin, random);
+        repetitiveHtml = new File(testingDirectory, "index.html");
+        FileUtils.write(repetitiveHtml, StringUtils.repeat("<p>mock body</p>\n", 10000), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDefaultExtensions() throws Exception {
+        final StoredEntryRules rules = new StoredEntryRules(null, false);
+        assertTrue(rules.isStored(new File(testingDirectory, "logo.PNG")));
+        assertTrue(rules.isStored(new File(testingDirectory, "commons-text-1.4-src.tar.gz")));
+        assertFalse(rules.isStored(repetitiveHtml));
+        assertFalse(rules.isStored(randomBin));
+    }
+
+    @Test
+    public void testConfiguredExtensions() throws Exception {
+        final StoredEntryRules rules = new StoredEntryRules(Arrays.asList(" bin "), false);
+        assertTrue(rules.isStored(randomBin));
+        assertFalse(rules.isStored(new File(testingDirectory, "logo.png")));
+    }
+
+    @Test
+    public void testProbe() throws Exception {
+        final StoredEntryRules rules = new StoredEntryRules(null, true);
+        assertTrue(rules.isStored(randomBin));
+        assertFalse(rules.isStored(repetitiveHtml));
+    }
+
+    @Test
+    public void testSmallFilesAreNotProbed() throws Exception {
+        final File smallRandomBin = new File(testingDirectory, "small.bin");
+        final byte[] random = new byte[1024];
+        new Random(0).nextBytes(random);
+        FileUtils.writeByteArrayToFile(smallRandomBin, random);
+        assertFalse(new StoredEntryRules(null, true).isStored(smallRandomBin));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link SvnCommands}.
+ */
+public class SvnCommandsTest {
+
+    private static final String URL = "https://dist.apache.org/repos/dist/dev/commons/text";
+
+    private final SvnScmProviderRepository repository = new SvnScmProviderRepository(URL);
+
+    @Test
+    public void testCheckOutCommandLine() {
+        final File checkoutDirectory = new File("target/testing-svn-commands");
+        final Commandline commandLine = SvnCommands.createCheckOutCommandLine(repository, checkoutDirectory, "empty");
+        assertEquals(checkoutDirectory.getAbsoluteFile(), commandLine.getWorkingDirectory());
+        assertEquals(Arrays.asList("checkout", "--depth", "empty", URL, "."), lastArguments(commandLine, 5));
+    }
+
+    @Test
+    public void testUpdateCommandLine() {
+        final Commandline commandLine = SvnCommands.createUpdateCommandLine(repository,
+                new File("target/testing-svn-commands"), "infinity", "1.4-RC1");
+        assertEquals(Arrays.asList("update", "--set-depth", "infinity", "1.4-RC1"), lastArguments(commandLine, 4));
+    }
+
+    @Test
+    public void testUpdateFilesCommandLine() {
+        final Commandline commandLine = SvnCommands.createUpdateFilesCommandLine(repository,
+                new File("target/testing-svn-commands"), Arrays.asList("site.zip", "site.zip.sha512"));
+        assertEquals(Arrays.asList("update", "site.zip", "site.zip.sha512"), lastArguments(commandLine, 3));
+    }
+
+    @Test
+    public void testImportCommandLine() {
+        final Commandline commandLine = SvnCommands.createImportCommandLine(repository,
+                new File("target/testing-svn-commands"), "1.4-RC1", "Staging release");
+        assertEquals(Arrays.asList("import", ".", URL + "/1.4-RC1", "-m", "Staging release"),
+                lastArguments(commandLine, 5));
+    }
+
+    @Test
+    public void testDeleteUrlsCommandLine() {
+        final Commandline commandLine = SvnCommands.createDeleteUrlsCommandLine(repository,
+                new File("target/testing-svn-commands"), Arrays.asList(URL + "/1.4-RC1", URL + "/1.4-RC2"),
+                "Cleaning up");
+        assertEquals(Arrays.asList("delete", "-m", "Cleaning up", URL + "/1.4-RC1", URL + "/1.4-RC2"),
+                lastArguments(commandLine, 5));
+    }
+
+    @Test
+    public void testListCommandLine() {
+        final Commandline commandLine = SvnCommands.createListCommandLine(repository,
+                new File("target/testing-svn-commands"));
+        assertEquals(Arrays.asList("list", "--xml", URL), lastArguments(commandLine, 3));
+    }
+
+    @Test
+    public void testVerboseListCommandLine() {
+        final Commandline commandLine = SvnCommands.createVerboseListCommandLine(repository,
+                new File("target/testing-svn-commands"));
+        assertEquals(Arrays.asList("list", "--xml", "--recursive", URL), lastArguments(commandLine, 4));
+    }
+
+    @Test
+    public void testParseListXml() throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<lists>\n<list path=\"" + URL + "\">\n"
+                + "<entry kind=\"dir\"><name>1.4-RC1</name>"
+                + "<commit revision=\"1200\"><author>rm</author><date>2020-01-02T03:04:05.123456Z</date></commit>"
+                + "</entry>\n"
+                + "<entry kind=\"file\"><name>1.4-RC1/site.zip</name><size>4096</size>"
+                + "<commit revision=\"1199\"><author>rm</author><date>2020-01-02T03:04:00.000000Z</date></commit>"
+                + "</entry>\n</list>\n</lists>\n";
+        final List<SvnListEntry> entries = SvnCommands.parseListXml(xml);
+        assertEquals(2, entries.size());
+        assertEquals("1.4-RC1", entries.get(0).getName());
+        assertTrue(entries.get(0).isDirectory());
+        assertTrue(entries.get(0).isTopLevel());
+        assertEquals(0, entries.get(0).getSize());
+        assertEquals(1200, entries.get(0).getRevision());
+        assertEquals(Instant.parse("2020-01-02T03:04:05.123456Z"), entries.get(0).getDate());
+        assertFalse(entries.get(1).isDirectory());
+        assertFalse(entries.get(1).isTopLevel());
+        assertTrue(entries.get(1).isUnder("1.4-RC1"));
+        assertEquals(4096, entries.get(1).getSize());
+        assertEquals(Collections.emptyList(), SvnCommands.parseListXml("<lists><list path=\"" + URL + "\"/></lists>"));
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testParseInvalidListXml() throws Exception {
+        SvnCommands.parseListXml("svn: E170013: Unable to connect to a repository");
+    }
+
+    @Test
+    public void testInfoRevisionCommandLine() {
+        final Commandline commandLine = SvnCommands.createInfoRevisionCommandLine(repository,
+                new File("target/testing-svn-commands"));
+        assertEquals(Arrays.asList("info", "--show-item", "revision", URL),
+                lastArguments(commandLine, 4));
+    }
+
+    @Test
+    public void testParseCommittedRevision() {
+        assertEquals("1234", SvnCommands.parseCommittedRevision("Adding  1.4-RC1\nAdding  1.4-RC1/README.html\n"
+                + "Committing transaction...\nCommitted revision 1234.\n"));
+        assertNull(SvnCommands.parseCommittedRevision("svn: E170013: Unable to connect to a repository"));
+    }
+
+    @Test
+    public void testValidDepths() throws Exception {
+        for (final String depth : SvnCommands.DEPTHS) {
+            SvnCommands.validateDepth(depth);
+        }
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testInvalidDepth() throws Exception {
+        SvnCommands.validateDepth("bottomless");
+    }
+
+    private static List<String> lastArguments(final Commandline commandLine, final int count) {
+        final List<String> arguments = Arrays.asList(commandLine.getArguments());
+        return arguments.subList(arguments.size() - count, arguments.size());
+    }
+}
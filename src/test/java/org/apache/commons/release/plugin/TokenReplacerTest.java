@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link TokenReplacer}.
+ */
+public class TokenReplacerTest {
+
+    private static String replace(final String text) throws Exception {
+        final Map<String, String> values = new HashMap<>();
+        values.put("NAME", "Apache Commons Text");
+        values.put("VERSION", "1.4");
+        values.put("RC", "RC1");
+        values.put("EMPTY", "");
+        values.put("MISSING", null);
+        final StringWriter writer = new StringWriter();
+        new TokenReplacer(values).replace(new StringReader(text), writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void testReplacesTokens() throws Exception {
+        assertEquals("Release Apache Commons Text 1.4 based on RC1.",
+                replace("Release @NAME@ @VERSION@ based on @RC@."));
+        assertEquals("1.4RC1", replace("@VERSION@@RC@"));
+        assertEquals("[]", replace("[@EMPTY@]"));
+    }
+
+    @Test
+    public void testLeavesOtherTextAlone() throws Exception {
+        assertEquals("dev@commons.apache.org", replace("dev@commons.apache.org"));
+        assertEquals("@UNKNOWN@ and @MISSING@", replace("@UNKNOWN@ and @MISSING@"));
+        assertEquals("user@HOST@1.4", replace("user@HOST@@VERSION@"));
+        assertEquals("a @ b @@", replace("a @ b @@"));
+        assertEquals("trailing @VERS", replace("trailing @VERS"));
+        assertEquals("@VERSIONS_AND_MORE@", replace("@VERSIONS_AND_MORE@"));
+    }
+}
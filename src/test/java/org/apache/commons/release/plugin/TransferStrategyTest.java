@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link TransferStrategy}.
+ */
+public class TransferStrategyTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-transfer-strategy";
+
+    private File artifact;
+
+    private File target;
+
+    @Before
+    public void setUp() throws Exception {
+        final File testingDirectory = new File(TEST_DIR_PATH);
+        if (testingDirectory.exists()) {
+            FileUtils.deleteDirectory(testingDirectory);
+        }
+        testingDirectory.mkdirs();
+        artifact = new File(testingDirectory, "artifact.zip");
+        FileUtils.fileWrite(artifact, "content");
+        target = new File(testingDirectory, "working/artifact.zip");
+        target.getParentFile().mkdirs();
+    }
+
+    @Test
+    public void testCopyLeavesCopyingToCaller() throws Exception {
+        assertEquals(TransferStrategy.COPY, TransferStrategy.COPY.transferWithoutCopy(artifact, target));
+        assertTrue(artifact.exists());
+        assertFalse(target.exists());
+    }
+
+    @Test
+    public void testHardlink() throws Exception {
+        FileUtils.fileWrite(target, "stale");
+        assertEquals(TransferStrategy.HARDLINK, TransferStrategy.HARDLINK.transferWithoutCopy(artifact, target));
+        assertTrue(Files.isSameFile(artifact.toPath(), target.toPath()));
+    }
+
+    @Test
+    public void testMove() throws Exception {
+        assertEquals(TransferStrategy.MOVE, TransferStrategy.MOVE.transferWithoutCopy(artifact, target));
+        assertFalse(artifact.exists());
+        assertEquals("content", FileUtils.fileRead(target));
+    }
+
+    @Test
+    public void testAutoPrefersHardlink() throws Exception {
+        assertEquals(TransferStrategy.HARDLINK, TransferStrategy.AUTO.transferWithoutCopy(artifact, target));
+        assertTrue(artifact.exists());
+        assertTrue(Files.isSameFile(artifact.toPath(), target.toPath()));
+    }
+
+    @Test
+    public void testFromName() {
+        assertEquals(TransferStrategy.AUTO, TransferStrategy.fromName(" Auto"));
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.commons.release.plugin.mojos;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.maven.plugin.testing.MojoRule;
 import org.codehaus.plexus.util.FileUtils;
 import org.junit.Before;
@@ -23,8 +24,14 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
@@ -97,6 +104,100 @@ public class CommonsDistributionDetachmentMojoTest {
         assertFalse(notDetachedMockAttachedFile.exists());
     }
 
+    @Test
+    public void testSha512MatchesCopiedArtifact() throws Exception {
+        final File testPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions.xml");
+        mojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", testPom);
+        mojo.execute();
+        final File detachedBinZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-bin.zip");
+        final File detachedBinZipSha512 = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-bin.zip.sha512");
+        try (InputStream inputStream = new FileInputStream(detachedBinZip)) {
+            assertEquals(DigestUtils.sha512Hex(inputStream),
+                    FileUtils.fileRead(detachedBinZipSha512, StandardCharsets.US_ASCII.name()).trim());
+        }
+        final Properties sha512Properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/sha512.properties")) {
+            sha512Properties.load(inputStream);
+        }
+        assertEquals(FileUtils.fileRead(detachedBinZipSha512, StandardCharsets.US_ASCII.name()).trim(),
+                sha512Properties.getProperty("commons-text-1.4-bin.zip"));
+        assertTrue(sha512Properties.containsKey("commons-text-1.4-javadoc.jar"));
+        assertFalse(sha512Properties.containsKey("commons-text-1.4-bin.zip.asc"));
+    }
+
+    @Test
+    public void testMultipleDigests() throws Exception {
+        final File testPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions-multiple-digests.xml");
+        mojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", testPom);
+        mojo.execute();
+        final File detachedSrcZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip");
+        final File detachedSrcZipSha256 = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip.sha256");
+        final File detachedSrcZipSha512 = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip.sha512");
+        final File detachedSrcZipAscSha256 = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip.asc.sha256");
+        final File sha256Properties = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/sha256.properties");
+        final File sha512Properties = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/sha512.properties");
+        assertTrue(sha256Properties.exists());
+        assertTrue(sha512Properties.exists());
+        assertFalse(detachedSrcZipAscSha256.exists());
+        try (InputStream inputStream = new FileInputStream(detachedSrcZip)) {
+            assertEquals(DigestUtils.sha256Hex(inputStream),
+                    FileUtils.fileRead(detachedSrcZipSha256, StandardCharsets.US_ASCII.name()).trim());
+        }
+        try (InputStream inputStream = new FileInputStream(detachedSrcZip)) {
+            assertEquals(DigestUtils.sha512Hex(inputStream),
+                    FileUtils.fileRead(detachedSrcZipSha512, StandardCharsets.US_ASCII.name()).trim());
+        }
+    }
+
+    @Test
+    public void testHardlinkTransferStrategy() throws Exception {
+        final File testPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions-hardlink.xml");
+        mojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", testPom);
+        mojo.execute();
+        final File originalSrcZip = new File("src/test/resources/mojos/detach-distributions/target/commons-text-1.4-src.zip");
+        final File detachedSrcZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip");
+        final File detachedSrcZipAsc = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip.asc");
+        final File detachedSrcZipSha512 = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/commons-text-1.4-src.zip.sha512");
+        assertTrue(originalSrcZip.exists());
+        assertTrue(Files.isSameFile(originalSrcZip.toPath(), detachedSrcZip.toPath()));
+        assertTrue(detachedSrcZipAsc.exists());
+        try (InputStream inputStream = new FileInputStream(originalSrcZip)) {
+            assertEquals(DigestUtils.sha512Hex(inputStream),
+                    FileUtils.fileRead(detachedSrcZipSha512, StandardCharsets.US_ASCII.name()).trim());
+        }
+    }
+
+    @Test
+    public void testDigestCacheGivesSameDigests() throws Exception {
+        final File digestCache = new File("target/testing-commons-release-plugin-digest-cache/digest-cache.properties");
+        if (digestCache.exists()) {
+            FileUtils.forceDelete(digestCache);
+        }
+        final File testPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions-multiple-digests.xml");
+        mojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", testPom);
+        mojo.execute();
+        assertTrue(digestCache.exists());
+        final File sha256Properties = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/sha256.properties");
+        final File sha512Properties = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/sha512.properties");
+        final Properties sha256s = readProperties(sha256Properties);
+        final Properties sha512s = readProperties(sha512Properties);
+        FileUtils.deleteDirectory(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        mojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", testPom);
+        mojo.execute();
+        assertEquals(sha256s, readProperties(sha256Properties));
+        assertEquals(sha512s, readProperties(sha512Properties));
+        // the cache lives under the basedir, where checkstyle would pick it up on the next build
+        FileUtils.forceDelete(digestCache);
+    }
+
+    private static Properties readProperties(final File file) throws Exception {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(file)) {
+            properties.load(inputStream);
+        }
+        return properties;
+    }
+
     @Test
     public void testDisabled() throws Exception {
         final File testPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions-disabled.xml");
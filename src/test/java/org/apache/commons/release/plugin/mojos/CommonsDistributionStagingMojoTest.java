@@ -16,17 +16,25 @@
  */
 package org.apache.commons.release.plugin.mojos;
 
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.testing.MojoRule;
 import org.codehaus.plexus.util.FileUtils;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
 /**
  * Unit tests for {@link CommonsDistributionStagingMojo}.
@@ -80,6 +88,160 @@ public class CommonsDistributionStagingMojoTest {
         assertRequisiteFilesExist();
     }
 
+    @Test
+    public void testImportDryRun() throws Exception {
+        final File testPom = new File("src/test/resources/mojos/stage-distributions/stage-distributions-import.xml");
+        assertTrue(testPom.exists());
+        final File detachmentPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions.xml");
+        mojoForTest = (CommonsDistributionStagingMojo) rule.lookupMojo("stage-distributions", testPom);
+        detachmentMojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", detachmentPom);
+        detachmentMojo.execute();
+        final File stagedRevision = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH,
+                CommonsDistributionStagingMojo.STAGED_REVISION_FILE_NAME);
+        FileUtils.fileWrite(stagedRevision, "UTF-8", "1234");
+        mojoForTest.setBaseDir(new File("src/test/resources/mojos/stage-distributions/"));
+        mojoForTest.execute();
+        assertRequisiteFilesExist();
+        assertFalse(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/scm/.svn").exists());
+        assertFalse(stagedRevision.exists());
+    }
+
+    @Test
+    public void testImportDryRunWithTemplates() throws Exception {
+        final File testPom = new File("src/test/resources/mojos/stage-distributions/stage-distributions-import.xml");
+        final File detachmentPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions.xml");
+        mojoForTest = (CommonsDistributionStagingMojo) rule.lookupMojo("stage-distributions", testPom);
+        detachmentMojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", detachmentPom);
+        detachmentMojo.execute();
+        mojoForTest.setBaseDir(new File("src/test/resources/mojos/stage-distributions/"));
+        rule.setVariableValueToObject(mojoForTest, "headerTemplate", "mojos/stage-distributions/templates/HEADER.vm");
+        rule.setVariableValueToObject(mojoForTest, "readmeTemplate", "mojos/stage-distributions/templates/README.vm");
+        mojoForTest.execute();
+        final File rcDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/scm/1.0-SNAPSHOT-RC1");
+        assertTrue(FileUtils.fileRead(new File(rcDirectory, "binaries/HEADER.html"), "UTF-8")
+                .contains("<h2>Custom header</h2>"));
+        assertTrue(FileUtils.fileRead(new File(rcDirectory, "source/README.html"), "UTF-8")
+                .contains("<h1>Custom commons-text 1.4</h1>"));
+    }
+
+    @Test
+    public void testImportSkipsStagedSiteArchive() throws Exception {
+        assertTrue(stageSiteArchiveOver("0123abcd").isEmpty());
+    }
+
+    @Test
+    public void testImportStagesChangedSiteArchive() throws Exception {
+        assertFalse(stageSiteArchiveOver("4567ef01").isEmpty());
+    }
+
+    @Test
+    public void testImportStagesSiteArchiveRebuiltNonReproducibly() throws Exception {
+        detachDistributions();
+        compressSite("compress-site-reproducible.xml");
+        final String reproducibleDigest = FileUtils.fileRead(
+                new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip.sha512"), "UTF-8").trim();
+        final String url = createStagingRepository(reproducibleDigest);
+        compressSite("compress-site.xml");
+        assertTrue(stageImportDryRun(url).contains("site.zip"));
+    }
+
+    @Test
+    public void testImportUpdatesStagedRootFiles() throws Exception {
+        final String url = createStagingRepository("0123abcd");
+        detachDistributions();
+        FileUtils.fileWrite(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip"), "UTF-8", "site");
+        FileUtils.fileWrite(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip.sha512"), "UTF-8", "4567ef01\n");
+        mojoForTest = (CommonsDistributionStagingMojo) rule.lookupMojo("stage-distributions",
+                new File("src/test/resources/mojos/stage-distributions/stage-distributions-import.xml"));
+        rule.setVariableValueToObject(mojoForTest, "distSvnStagingUrl", "scm:svn:" + url);
+        rule.setVariableValueToObject(mojoForTest, "dryRun", Boolean.FALSE);
+        mojoForTest.setBaseDir(new File("src/test/resources/mojos/stage-distributions/"));
+        mojoForTest.execute();
+        assertTrue(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH,
+                CommonsDistributionStagingMojo.STAGED_REVISION_FILE_NAME).exists());
+        assertTrue(run(new File("."), "svn", "info", url + "/1.0-SNAPSHOT-RC1/source"));
+        final File exported = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "-svn/site.zip.sha512");
+        assertTrue(run(new File("."), "svn", "export", url + "/site.zip.sha512", exported.getPath()));
+        assertEquals("4567ef01", FileUtils.fileRead(exported, "UTF-8").trim());
+        try {
+            mojoForTest.execute();
+            fail("The release candidate has already been staged");
+        } catch (final MojoExecutionException e) {
+            assertTrue(e.getMessage().contains("already been staged"));
+        }
+    }
+
+    /**
+     * Stages a site archive whose digest is <code>0123abcd</code>, with a dry run of the import mode, into a local
+     * repository whose root already holds a <code>site.zip.sha512</code> with the given digest.
+     *
+     * @return the names of the site archive files that were staged at the root of the dist directory.
+     */
+    private List<String> stageSiteArchiveOver(final String stagedDigest) throws Exception {
+        final String url = createStagingRepository(stagedDigest);
+        detachDistributions();
+        FileUtils.fileWrite(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip"), "UTF-8", "site");
+        FileUtils.fileWrite(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip.sha512"), "UTF-8", "0123abcd\n");
+        return stageImportDryRun(url);
+    }
+
+    /**
+     * Creates a local repository whose root holds a <code>site.zip.sha512</code> with the given digest, or skips
+     * the test if Subversion is not installed.
+     *
+     * @return the url of the repository.
+     */
+    private String createStagingRepository(final String stagedDigest) throws Exception {
+        final File repositoryDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "-svn/repository")
+                .getAbsoluteFile();
+        final File importDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "-svn/import");
+        FileUtils.deleteDirectory(repositoryDirectory.getParentFile());
+        Assume.assumeTrue(run(new File("."), "svnadmin", "create", repositoryDirectory.getPath()));
+        final String url = repositoryDirectory.toURI().toString().replaceFirst("^file:/+", "file:///");
+        importDirectory.mkdirs();
+        FileUtils.fileWrite(new File(importDirectory, "site.zip.sha512"), "UTF-8", stagedDigest + "\n");
+        assertTrue(run(importDirectory, "svn", "import", "-m", "Stage a site", ".", url));
+        return url;
+    }
+
+    private void detachDistributions() throws Exception {
+        final File detachmentPom = new File("src/test/resources/mojos/detach-distributions/detach-distributions.xml");
+        detachmentMojo = (CommonsDistributionDetachmentMojo) rule.lookupMojo("detach-distributions", detachmentPom);
+        detachmentMojo.execute();
+    }
+
+    private void compressSite(final String testPom) throws Exception {
+        rule.lookupMojo("compress-site", new File("src/test/resources/mojos/compress-site/" + testPom)).execute();
+    }
+
+    /**
+     * Stages the distributions with a dry run of the import mode into the given repository.
+     *
+     * @return the names of the site archive files that were staged at the root of the dist directory.
+     */
+    private List<String> stageImportDryRun(final String url) throws Exception {
+        mojoForTest = (CommonsDistributionStagingMojo) rule.lookupMojo("stage-distributions",
+                new File("src/test/resources/mojos/stage-distributions/stage-distributions-import.xml"));
+        rule.setVariableValueToObject(mojoForTest, "distSvnStagingUrl", "scm:svn:" + url);
+        mojoForTest.setBaseDir(new File("src/test/resources/mojos/stage-distributions/"));
+        mojoForTest.execute();
+        final List<String> staged = new ArrayList<>();
+        for (final String name : Arrays.asList("site.zip", "site.zip.sha512")) {
+            if (new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/scm", name).exists()) {
+                staged.add(name);
+            }
+        }
+        return staged;
+    }
+
+    private static boolean run(final File directory, final String... command) throws InterruptedException {
+        try {
+            return new ProcessBuilder(command).directory(directory).inheritIO().start().waitFor() == 0;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
     @Test
     public void testDisabled() throws Exception {
         final File testPom = new File("src/test/resources/mojos/stage-distributions/stage-distributions-disabled.xml");
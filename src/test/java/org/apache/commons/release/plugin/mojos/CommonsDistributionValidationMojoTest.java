@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.mojos;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.release.plugin.stubs.RepositoryServerStub;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for {@link CommonsDistributionValidationMojo}.
+ */
+public class CommonsDistributionValidationMojoTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-distribution-validation";
+
+    @Rule
+    public MojoRule rule = new MojoRule() {
+        @Override
+        protected void before() throws Throwable {
+            // noop
+        }
+
+        @Override
+        protected void after() {
+            // noop
+        }
+    };
+
+    private File repository;
+
+    @Before
+    public void setUp() throws Exception {
+        final File testingDirectory = new File(TEST_DIR_PATH);
+        FileUtils.deleteQuietly(testingDirectory);
+        repository = new File(testingDirectory, "repository");
+        final String content = "source zip content";
+        FileUtils.write(new File(repository, "commons-text-1.0-src.zip"), content, StandardCharsets.UTF_8);
+        FileUtils.write(new File(repository, "commons-text-1.0-src.zip.asc"), "signature", StandardCharsets.UTF_8);
+        FileUtils.write(new File(repository, "commons-text-1.0-src.zip.sha1"), DigestUtils.sha1Hex(content),
+                StandardCharsets.UTF_8);
+        FileUtils.write(new File(testingDirectory, "scm/1.0-RC1/source/commons-text-1.0-src.zip"), content,
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testValidDistributions() throws Exception {
+        try (RepositoryServerStub server = new RepositoryServerStub(repository)) {
+            getMojo(server.getUrl()).execute();
+        }
+    }
+
+    @Test(expected = MojoFailureException.class)
+    public void testInvalidDistributions() throws Exception {
+        FileUtils.write(new File(TEST_DIR_PATH, "scm/1.0-RC1/source/commons-text-1.0-src.zip"), "changed",
+                StandardCharsets.UTF_8);
+        try (RepositoryServerStub server = new RepositoryServerStub(repository)) {
+            getMojo(server.getUrl()).execute();
+        }
+    }
+
+    @Test
+    public void testChecksumMode() throws Exception {
+        final String digest = DigestUtils.sha512Hex("source zip content");
+        FileUtils.write(new File(repository, "commons-text-1.0-src.zip.sha512"), digest, StandardCharsets.UTF_8);
+        FileUtils.write(new File(TEST_DIR_PATH, "sha512.properties"), "commons-text-1.0-src.zip=" + digest + "\n",
+                StandardCharsets.UTF_8);
+        try (RepositoryServerStub server = new RepositoryServerStub(repository)) {
+            final CommonsDistributionValidationMojo mojo = getMojo(server.getUrl());
+            rule.setVariableValueToObject(mojo, "validationMode", "checksum");
+            mojo.execute();
+            assertFalse(server.getDownloads().contains("commons-text-1.0-src.zip"));
+        }
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testRepositoryUrlIsRequired() throws Exception {
+        getMojo(null).execute();
+    }
+
+    private CommonsDistributionValidationMojo getMojo(final String repositoryUrl) throws Exception {
+        final CommonsDistributionValidationMojo mojo = (CommonsDistributionValidationMojo) rule.lookupMojo(
+                "validate-distributions",
+                new File("src/test/resources/mojos/validate-distributions/validate-distributions.xml"));
+        rule.setVariableValueToObject(mojo, "repositoryUrl", repositoryUrl);
+        return mojo;
+    }
+}
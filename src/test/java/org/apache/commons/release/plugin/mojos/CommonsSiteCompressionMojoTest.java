@@ -16,16 +16,39 @@
  */
 package org.apache.commons.release.plugin.mojos;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.testing.MojoRule;
-import org.codehaus.plexus.util.FileUtils;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -77,6 +100,236 @@ public class CommonsSiteCompressionMojoTest {
         assertTrue(siteZip.exists());
     }
 
+    @Test
+    public void testSequentialAndParallelZipsHaveSameEntries() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        final File siteZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip");
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-sequential.xml"));
+        mojo.execute();
+        final Map<String, String> sequentialEntries = readEntries(siteZip);
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site.xml"));
+        mojo.execute();
+        final Map<String, String> parallelEntries = readEntries(siteZip);
+        assertEquals(3, sequentialEntries.size());
+        assertEquals(sequentialEntries, parallelEntries);
+    }
+
+    @Test
+    public void testCompressedFilesAreStored() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        final File siteZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip");
+        for (final String testPom : new String[] {"compress-site.xml", "compress-site-sequential.xml"}) {
+            mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                    new File("src/test/resources/mojos/compress-site/" + testPom));
+            mojo.execute();
+            try (ZipFile zipFile = new ZipFile(siteZip)) {
+                assertEquals(testPom, ZipEntry.STORED, zipFile.getEntry("images/logo.png").getMethod());
+                assertEquals(testPom, ZipEntry.DEFLATED, zipFile.getEntry("index.html").getMethod());
+            }
+        }
+    }
+
+    @Test
+    public void testPresetsGiveSameEntries() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        final File siteZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip");
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site.xml"));
+        mojo.execute();
+        final Map<String, String> balancedEntries = readEntries(siteZip);
+        for (final String testPom : new String[] {"compress-site-smallest.xml", "compress-site-level.xml"}) {
+            mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                    new File("src/test/resources/mojos/compress-site/" + testPom));
+            mojo.execute();
+            assertEquals(testPom, balancedEntries, readEntries(siteZip));
+        }
+    }
+
+    @Test
+    public void testIncrementalRebuildHasSameEntries() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        final File siteZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip");
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site.xml"));
+        mojo.execute();
+        final Map<String, String> fullEntries = readEntries(siteZip);
+        for (int run = 0; run < 2; run++) {
+            mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                    new File("src/test/resources/mojos/compress-site/compress-site-incremental.xml"));
+            mojo.execute();
+            assertEquals(fullEntries, readEntries(siteZip));
+        }
+        assertFalse(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip.previous").exists());
+    }
+
+    @Test
+    public void testTarArchivesHaveSameEntries() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site.xml"));
+        mojo.execute();
+        final Map<String, String> zipEntries =
+                readEntries(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip"));
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-tar-gz.xml"));
+        mojo.execute();
+        try (InputStream inputStream = new GzipCompressorInputStream(
+                new FileInputStream(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.tar.gz"), true)) {
+            assertEquals(zipEntries, readTarEntries(inputStream));
+        }
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-tar-xz.xml"));
+        mojo.execute();
+        try (InputStream inputStream = new XZCompressorInputStream(
+                new FileInputStream(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.tar.xz"), true)) {
+            assertEquals(zipEntries, readTarEntries(inputStream));
+        }
+    }
+
+    @Test
+    public void testReproducibleArchivesDoNotDependOnFileTimes() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        final File exampleSite = new File("target/test-classes/mojos/compress-site/example-site");
+        for (final String archive : new String[] {"site.zip", "site.tar.gz"}) {
+            final String testPom = "site.zip".equals(archive) ? "compress-site-reproducible.xml"
+                    : "compress-site-reproducible-tar-gz.xml";
+            final File siteArchive = new File(testingDirectory, archive);
+            mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                    new File("src/test/resources/mojos/compress-site/" + testPom));
+            mojo.execute();
+            final byte[] firstArchive = FileUtils.readFileToByteArray(siteArchive);
+            for (final File file : FileUtils.listFiles(exampleSite, null, true)) {
+                file.setLastModified(file.lastModified() - 3600000);
+            }
+            mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                    new File("src/test/resources/mojos/compress-site/" + testPom));
+            mojo.execute();
+            assertArrayEquals(testPom, firstArchive, FileUtils.readFileToByteArray(siteArchive));
+            assertEquals(testPom, DigestUtils.sha512Hex(firstArchive), FileUtils.readFileToString(
+                    new File(testingDirectory, archive + ".sha512"), StandardCharsets.UTF_8).trim());
+        }
+        try (ZipFile zipFile = new ZipFile(new File(testingDirectory, "site.zip"))) {
+            final List<String> names = new ArrayList<>();
+            final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                final ZipEntry zipEntry = zipEntries.nextElement();
+                names.add(zipEntry.getName());
+                assertEquals(zipEntry.getName(), OffsetDateTime.parse("2021-01-01T00:00:00Z").toInstant()
+                        .toEpochMilli(), zipEntry.getTime() + TimeZone.getDefault().getOffset(zipEntry.getTime()));
+            }
+            assertEquals(Arrays.asList("images/logo.png", "index.html", "subdirectory/index.html"), names);
+        }
+    }
+
+    @Test
+    public void testNonReproducibleArchiveDropsDigest() throws Exception {
+        new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH).mkdir();
+        final File digestFile = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip.sha512");
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-reproducible.xml"));
+        mojo.execute();
+        assertTrue(digestFile.exists());
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site.xml"));
+        mojo.execute();
+        assertTrue(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH, "site.zip").exists());
+        assertFalse(digestFile.exists());
+    }
+
+    private static Map<String, String> readTarEntries(final InputStream inputStream) throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        try (TarArchiveInputStream tarInputStream = new TarArchiveInputStream(inputStream)) {
+            TarArchiveEntry entry;
+            while ((entry = tarInputStream.getNextTarEntry()) != null) {
+                entries.put(entry.getName(), IOUtils.toString(tarInputStream, "UTF-8"));
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    public void testZip64Modes() throws Exception {
+        final File testingDirectory = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH);
+        testingDirectory.mkdir();
+        final File siteZip = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip");
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site.xml"));
+        mojo.execute();
+        final Map<String, String> entries = readEntries(siteZip);
+        for (final String testPom : new String[] {"compress-site-zip64.xml", "compress-site-no-zip64.xml"}) {
+            mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                    new File("src/test/resources/mojos/compress-site/" + testPom));
+            mojo.execute();
+            assertEquals(testPom, entries, readEntries(siteZip));
+        }
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testUnknownZip64Mode() throws Exception {
+        new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH).mkdir();
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-bad-zip64.xml"));
+        mojo.execute();
+    }
+
+    /**
+     * Compresses a synthetic site of 200,000 files, which needs Zip64. This takes a while, so it only runs with
+     * <code>-Dcommons.release.scaleTest=true</code>.
+     */
+    @Test
+    public void testScale() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("commons.release.scaleTest"));
+        final File scaleSite = new File("target/testing-scale-site");
+        if (!scaleSite.exists()) {
+            for (int directory = 0; directory < 200; directory++) {
+                final File apidocs = new File(scaleSite, "apidocs/package" + directory);
+                apidocs.mkdirs();
+                for (int page = 0; page < 1000; page++) {
+                    FileUtils.write(new File(apidocs, "Class" + page + ".html"),
+                            "<html><body>Class " + page + " of package " + directory + "</body></html>",
+                            StandardCharsets.UTF_8);
+                }
+            }
+        }
+        new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH).mkdir();
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-scale.xml"));
+        mojo.execute();
+        try (ZipFile zipFile = new ZipFile(new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/site.zip"))) {
+            assertEquals(200000, zipFile.size());
+        }
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testUnknownPreset() throws Exception {
+        new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH).mkdir();
+        mojo = (CommonsSiteCompressionMojo) rule.lookupMojo("compress-site",
+                new File("src/test/resources/mojos/compress-site/compress-site-bad-preset.xml"));
+        mojo.execute();
+    }
+
+    private static Map<String, String> readEntries(final File zip) throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                final ZipEntry zipEntry = zipEntries.nextElement();
+                try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+                    entries.put(zipEntry.getName(), IOUtils.toString(inputStream, "UTF-8"));
+                }
+            }
+        }
+        return entries;
+    }
+
     @Test
     public void testCompressSiteDirNonExistentFailure() throws Exception {
         final File testPom = new File("src/test/resources/mojos/compress-site/compress-site-failure.xml");
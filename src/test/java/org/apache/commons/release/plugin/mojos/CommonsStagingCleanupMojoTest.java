@@ -16,6 +16,7 @@
  */
 package org.apache.commons.release.plugin.mojos;
 
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.testing.MojoRule;
 import org.codehaus.plexus.util.FileUtils;
 import org.junit.Before;
@@ -72,4 +73,20 @@ public class CommonsStagingCleanupMojoTest {
         final File cleanupDir = new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH + "/scm-cleanup");
         assertTrue(cleanupDir.exists());
     }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testUnsupportedCleanupMode() throws Exception {
+        new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH).mkdir();
+        mojo = (CommonsStagingCleanupMojo) rule.lookupMojo("clean-staging",
+                new File("src/test/resources/mojos/staging-cleanup/staging-cleanup-bad-mode.xml"));
+        mojo.execute();
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testRetentionRulesNeedUrlMode() throws Exception {
+        new File(COMMONS_RELEASE_PLUGIN_TEST_DIR_PATH).mkdir();
+        mojo = (CommonsStagingCleanupMojo) rule.lookupMojo("clean-staging",
+                new File("src/test/resources/mojos/staging-cleanup/staging-cleanup-retain-checkout.xml"));
+        mojo.execute();
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.mojos;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link CommonsVoteTxtMojo}.
+ */
+public class CommonsVoteTxtMojoTest {
+
+    private static final String TEST_DIR_PATH = "target/testing-vote-txt";
+
+    @Rule
+    public MojoRule rule = new MojoRule() {
+        @Override
+        protected void before() throws Throwable {
+            // noop
+        }
+
+        @Override
+        protected void after() {
+            // noop
+        }
+    };
+
+    private File testingDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        testingDirectory = new File(TEST_DIR_PATH);
+        FileUtils.deleteQuietly(testingDirectory);
+        testingDirectory.mkdirs();
+    }
+
+    @Test
+    public void testVoteTxtUsesRecordedDigestsAndRevision() throws Exception {
+        FileUtils.write(new File(testingDirectory, "sha512.properties"),
+                "#Release SHA-512s\ncommons-text-1.4-src.zip=bbbb\ncommons-text-1.4-bin.zip=aaaa\n",
+                StandardCharsets.UTF_8);
+        FileUtils.write(new File(testingDirectory, CommonsDistributionStagingMojo.STAGED_REVISION_FILE_NAME),
+                "42424\n", StandardCharsets.UTF_8);
+        final CommonsVoteTxtMojo mojo = (CommonsVoteTxtMojo) rule.lookupMojo("vote-txt",
+                new File("src/test/resources/mojos/vote-txt/vote-txt.xml"));
+        mojo.execute();
+        final String voteTxt = FileUtils.readFileToString(new File(testingDirectory, "VOTE.txt"),
+                StandardCharsets.UTF_8);
+        assertTrue(voteTxt.contains("dist/dev/commons/text/1.4-RC1 (svn revision 42424)"));
+        assertTrue(voteTxt.contains("commons-text-1.4-bin.zip=aaaa\ncommons-text-1.4-src.zip=bbbb\n"));
+        assertTrue(voteTxt.contains("The Git tag commons-text-1.4-RC1 commit for this RC is 0123456789abcdef"));
+        assertTrue(voteTxt.contains("orgapachecommons-1234/org/apache/commons/commons-text/1.4/"));
+        assertTrue(voteTxt.contains("Release Manager (using key ABCD1234)"));
+        assertFalse(voteTxt.contains("@RCREV@"));
+        assertFalse(voteTxt.contains("@SHA512LIST@"));
+    }
+
+    @Test(expected = MojoExecutionException.class)
+    public void testMissingNexusRepoIdFails() throws Exception {
+        final CommonsVoteTxtMojo mojo = (CommonsVoteTxtMojo) rule.lookupMojo("vote-txt",
+                new File("src/test/resources/mojos/vote-txt/vote-txt-no-nexus-repo.xml"));
+        mojo.execute();
+    }
+}
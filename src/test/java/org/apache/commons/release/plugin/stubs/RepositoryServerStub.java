@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.stubs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for a staging repository, which serves the files of a directory under <code>/repo/</code>, with
+ * an html listing of the directory that links to the files with absolute urls, or with relative ones. It answers
+ * <code>HEAD</code> requests with the SHA-1 of the file in an <code>X-Checksum-Sha1</code> header.
+ */
+public class RepositoryServerStub implements AutoCloseable {
+
+    private final File directory;
+
+    private final boolean relativeLinks;
+
+    private final HttpServer server;
+
+    private final List<String> downloads = Collections.synchronizedList(new ArrayList<>());
+
+    public RepositoryServerStub(final File directory) throws IOException {
+        this(directory, false);
+    }
+
+    public RepositoryServerStub(final File directory, final boolean relativeLinks) throws IOException {
+        this.directory = directory;
+        this.relativeLinks = relativeLinks;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the url of the repository directory, ending with a <code>/</code>.
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/repo/";
+    }
+
+    /**
+     * @return the names of the files that were downloaded with a <code>GET</code> request.
+     */
+    public List<String> getDownloads() {
+        return downloads;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final byte[] body;
+        if ("/repo/".equals(path)) {
+            final StringBuilder html = new StringBuilder("<html><body><table>\n");
+            html.append("<tr><td><a href=\"../\">Parent Directory</a></td></tr>\n");
+            final String[] names = directory.list();
+            Arrays.sort(names);
+            for (final String name : names) {
+                html.append("<tr><td><a href=\"").append(relativeLinks ? "" : getUrl()).append(name).append("\">")
+                        .append(name).append("</a></td></tr>\n");
+            }
+            body = html.append("</table></body></html>\n").toString().getBytes(StandardCharsets.UTF_8);
+        } else {
+            final File file = path.startsWith("/repo/") ? new File(directory, path.substring("/repo/".length())) : null;
+            if (file == null || !file.isFile()) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            body = Files.readAllBytes(file.toPath());
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("X-Checksum-Sha1", DigestUtils.sha1Hex(body));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            downloads.add(file.getName());
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.apache.commons.release.plugin.velocity;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.io.StringWriter;
@@ -37,4 +38,15 @@ public class HeaderHtmlVelocityDelegateTest {
         }
     }
 
+    @Test
+    public void testCompiledTemplateRendersLikeVelocity() {
+        final String compiled = HeaderHtmlVelocityDelegate.builder().build().render(new StringWriter()).toString();
+        final String velocity = HeaderHtmlVelocityDelegate.builder()
+                .withTemplate(HeaderHtmlVelocityDelegate.TEMPLATE)
+                .build()
+                .render(new StringWriter())
+                .toString();
+        assertEquals(velocity, compiled);
+    }
+
 }
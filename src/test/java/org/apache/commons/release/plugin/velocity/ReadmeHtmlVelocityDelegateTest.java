@@ -16,13 +16,21 @@
  */
 package org.apache.commons.release.plugin.velocity;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.release.plugin.ParallelFileCopier;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 
 /**
  * Unit tests for {@link ReadmeHtmlVelocityDelegate}.
@@ -71,4 +79,50 @@ public class ReadmeHtmlVelocityDelegateTest {
             assertTrue(filledOutTemplate.contains("<h1>Commons-BCEL v1.5.</h1>"));
         }
     }
+
+    @Test
+    public void testCompiledTemplateRendersLikeVelocity() {
+        for (final String artifactId : new String[] {"commons-text", "commons-lang3", "bcel"}) {
+            final ReadmeHtmlVelocityDelegate.ReadmeHtmlVelocityDelegateBuilder builder =
+                    ReadmeHtmlVelocityDelegate.builder()
+                            .withArtifactId(artifactId)
+                            .withVersion("1.5")
+                            .withSiteUrl("https://commons.apache.org/\"quoted\"\\path");
+            final String compiled = builder.build().render(new StringWriter()).toString();
+            final String velocity = builder.withTemplate(ReadmeHtmlVelocityDelegate.TEMPLATE).build()
+                    .render(new StringWriter()).toString();
+            assertEquals(velocity, compiled);
+        }
+    }
+
+    @Test
+    public void testMissingValueRendersLikeVelocity() {
+        final ReadmeHtmlVelocityDelegate.ReadmeHtmlVelocityDelegateBuilder builder =
+                ReadmeHtmlVelocityDelegate.builder().withArtifactId("commons-text").withVersion("1.4");
+        final String compiled = builder.build().render(new StringWriter()).toString();
+        assertTrue(compiled.contains("<a href=\"${siteUrl}\">"));
+        assertEquals(builder.withTemplate(ReadmeHtmlVelocityDelegate.TEMPLATE).build()
+                .render(new StringWriter()).toString(), compiled);
+    }
+
+    @Test
+    public void testRenderToSeveralFiles() throws Exception {
+        final File directory = new File("target/testing-readme-html");
+        FileUtils.deleteQuietly(directory);
+        final List<File> files = Arrays.asList(new File(directory, "README.html"),
+                new File(directory, "source/README.html"), new File(directory, "binaries/README.html"));
+        final ReadmeHtmlVelocityDelegate delegate = ReadmeHtmlVelocityDelegate.builder()
+                .withArtifactId("commons-text")
+                .withVersion("1.4")
+                .withSiteUrl("https://commons.apache.org/text")
+                .build();
+        try (ParallelFileCopier copier = new ParallelFileCopier(new SystemStreamLog(), 2)) {
+            assertEquals(files, delegate.render(copier, files));
+            copier.await();
+        }
+        final String expected = delegate.render(new StringWriter()).toString();
+        for (final File file : files) {
+            assertEquals(expected, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.release.plugin.velocity;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@link VelocityTemplates}.
+ */
+public class VelocityTemplatesTest {
+
+    private static final String TEMPLATE = "resources/org/apache/commons/release/plugin/velocity/README.vm";
+
+    @Test
+    public void testTemplateIsParsedOnce() {
+        assertSame(VelocityTemplates.getTemplate(TEMPLATE), VelocityTemplates.getTemplate(TEMPLATE));
+    }
+
+    @Test
+    public void testConcurrentRendering() throws Exception {
+        final String expected = render("commons-lang3");
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executorService.submit((Callable<String>) () -> render("commons-lang3")));
+            }
+            for (final Future<String> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static String render(final String artifactId) {
+        return ReadmeHtmlVelocityDelegate.builder()
+                .withArtifactId(artifactId)
+                .withVersion("3.8.1")
+                .withSiteUrl("https://commons.apache.org/lang")
+                .withTemplate(TEMPLATE)
+                .build()
+                .render(new StringWriter())
+                .toString();
+    }
+}